@@ -0,0 +1,31 @@
+package cz.cvut.fel.pjv.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the JMH benchmarks with the GC profiler attached, so every result also reports
+ * the allocation rate per operation.
+ * Started by {@code mvn -P benchmarks test-compile exec:exec}, optionally with
+ * {@code -Dbenchmark.include=<regex>} to select the benchmarks.
+ */
+public class BenchmarkRunner {
+
+    /**
+     * Runs the benchmarks matching the given pattern.
+     *
+     * @param args optionally a regular expression selecting the benchmarks
+     * @throws RunnerException if JMH fails to run the benchmarks
+     */
+    public static void main(String[] args) throws RunnerException {
+        String include = args.length > 0 ? args[0] : ".*";
+        Options options = new OptionsBuilder()
+                .include(include)
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,61 @@
+package cz.cvut.fel.pjv.benchmarks;
+
+import cz.cvut.fel.pjv.levels.LevelDecoder;
+import cz.cvut.fel.pjv.levels.TileMap;
+import cz.cvut.fel.pjv.main.Game;
+import cz.cvut.fel.pjv.utils.AABB;
+import cz.cvut.fel.pjv.utils.AdditionalMethods;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the tile collision helpers that every entity calls several times per tick.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CollisionBenchmark {
+    private TileMap tileMap;
+    private AABB standing, falling, enemy, player;
+    private int groundRow;
+
+    @Setup
+    public void setUp() {
+        tileMap = new LevelDecoder(LevelImages.create(200)).getTileMap();
+        groundRow = Game.TILES_IN_HEIGHT - 2;
+        double floorY = (Game.TILES_IN_HEIGHT - 1) * Game.TILES_SIZE;
+        standing = new AABB(10 * Game.TILES_SIZE, floorY - 40, 30, 39);
+        falling = new AABB(30 * Game.TILES_SIZE, 2 * Game.TILES_SIZE, 30, 39);
+        enemy = new AABB(60 * Game.TILES_SIZE, floorY - 40, 30, 39);
+        player = new AABB(40 * Game.TILES_SIZE, floorY - 40, 30, 39);
+    }
+
+    @Benchmark
+    public boolean canMoveHere() {
+        return AdditionalMethods.canMoveHere(standing.getX() + 1, standing.getY(), standing.getWidth(), standing.getHeight(), tileMap);
+    }
+
+    @Benchmark
+    public boolean isEntityOnFloorStanding() {
+        return AdditionalMethods.isEntityOnFloor(standing, tileMap);
+    }
+
+    @Benchmark
+    public boolean isEntityOnFloorFalling() {
+        return AdditionalMethods.isEntityOnFloor(falling, tileMap);
+    }
+
+    @Benchmark
+    public boolean isSightClear() {
+        return AdditionalMethods.isSightClear(tileMap, enemy, player, groundRow);
+    }
+
+    @Benchmark
+    public boolean isAllTilesWalkable() {
+        return AdditionalMethods.isAllTilesWalkable(2, 190, groundRow, tileMap);
+    }
+}
@@ -0,0 +1,64 @@
+package cz.cvut.fel.pjv.benchmarks;
+
+import cz.cvut.fel.pjv.characters.EnemyManager;
+import cz.cvut.fel.pjv.characters.Player;
+import cz.cvut.fel.pjv.gamestates.Playing;
+import cz.cvut.fel.pjv.levels.Level;
+import cz.cvut.fel.pjv.main.HeadlessSimulation;
+import cz.cvut.fel.pjv.utils.ActivityRegion;
+import cz.cvut.fel.pjv.utils.AnimationClock;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures one tick of enemy AI and physics for levels with different numbers of enemies.
+ * The camera is at the start of the level. With the default activity radius only the enemies near it are updated;
+ * the huge radius keeps every enemy awake. With more than one thread, large updates run their AI in parallel.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EnemyUpdateBenchmark {
+    @Param({"10", "1000", "100000"})
+    private int enemies;
+
+    @Param({"1248", "1e300"})
+    private double activityRadius;
+
+    @Param({"1", "8"})
+    private int threads;
+
+    private EnemyManager enemyManager;
+    private Level level;
+    private Player player;
+    private AnimationClock clock;
+    private ActivityRegion region;
+
+    @Setup(org.openjdk.jmh.annotations.Level.Trial)
+    public void setUp() {
+        Playing playing = new HeadlessSimulation().getPlaying();
+        player = playing.getPlayer();
+        clock = playing.getAnimationClock();
+        level = new Level(LevelImages.withEnemies(enemies));
+        enemyManager = new EnemyManager(playing);
+        enemyManager.loadEnemies(level);
+        enemyManager.setParallelism(threads);
+        region = new ActivityRegion(activityRadius);
+        region.update(0);
+    }
+
+    @TearDown(org.openjdk.jmh.annotations.Level.Trial)
+    public void tearDown() {
+        enemyManager.setParallelism(1);
+    }
+
+    @Benchmark
+    public void update() {
+        enemyManager.update(level.getTileMap(), player, region);
+        clock.tick();
+    }
+}
@@ -0,0 +1,79 @@
+package cz.cvut.fel.pjv.benchmarks;
+
+import cz.cvut.fel.pjv.main.Game;
+import javafx.scene.image.PixelWriter;
+import javafx.scene.image.WritableImage;
+
+/**
+ * Generates level images in the format of the PNGs in all_levels, so benchmarks can use levels of any size.
+ * Red is the tile, green the enemy or player spawn and blue the object of a pixel.
+ */
+final class LevelImages {
+    static final int AIR = 44;
+    static final int GROUND = 0;
+    /**
+     * A green or blue value that does not stand for any enemy or object.
+     */
+    static final int NOTHING = 100;
+    static final int PLAYER_SPAWN = 255;
+
+    private LevelImages() {
+    }
+
+    /**
+     * Creates a level with solid ground in the bottom row, a platform every few tiles and the player spawn on the left.
+     *
+     * @param width the width of the level in tiles
+     * @return the level image
+     */
+    static WritableImage create(int width) {
+        WritableImage image = new WritableImage(width, Game.TILES_IN_HEIGHT);
+        PixelWriter writer = image.getPixelWriter();
+        for (int y = 0; y < Game.TILES_IN_HEIGHT; y++) {
+            for (int x = 0; x < width; x++) {
+                boolean ground = y == Game.TILES_IN_HEIGHT - 1 || (y == 8 && x % 12 < 4);
+                writer.setArgb(x, y, argb(ground ? GROUND : AIR, NOTHING, NOTHING));
+            }
+        }
+        writer.setArgb(1, Game.TILES_IN_HEIGHT - 2, argb(AIR, PLAYER_SPAWN, NOTHING));
+        return image;
+    }
+
+    /**
+     * Creates a level holding the given number of dogs and cats, three per column above the ground.
+     *
+     * @param enemies the number of enemies
+     * @return the level image
+     */
+    static WritableImage withEnemies(int enemies) {
+        WritableImage image = create(widthFor(enemies));
+        PixelWriter writer = image.getPixelWriter();
+        for (int i = 0; i < enemies; i++) {
+            writer.setArgb(3 + i / 3, Game.TILES_IN_HEIGHT - 4 + i % 3, argb(AIR, i % 2, NOTHING));
+        }
+        return image;
+    }
+
+    /**
+     * Creates a level holding the given number of objects, cycling through all object types.
+     *
+     * @param objects the number of objects
+     * @return the level image
+     */
+    static WritableImage withObjects(int objects) {
+        WritableImage image = create(widthFor(objects));
+        PixelWriter writer = image.getPixelWriter();
+        for (int i = 0; i < objects; i++) {
+            writer.setArgb(3 + i / 3, Game.TILES_IN_HEIGHT - 4 + i % 3, argb(AIR, NOTHING, i % 5));
+        }
+        return image;
+    }
+
+    private static int widthFor(int entities) {
+        return Math.max(Game.TILES_IN_WIDTH + 1, entities / 3 + 6);
+    }
+
+    private static int argb(int red, int green, int blue) {
+        return 0xFF000000 | red << 16 | green << 8 | blue;
+    }
+}
@@ -0,0 +1,33 @@
+package cz.cvut.fel.pjv.benchmarks;
+
+import cz.cvut.fel.pjv.levels.LevelDecoder;
+import javafx.scene.image.Image;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures decoding generated levels of different widths.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LevelLoadBenchmark {
+    @Param({"100", "10000", "100000"})
+    private int width;
+
+    private Image image;
+
+    @Setup
+    public void setUp() {
+        image = LevelImages.create(width);
+    }
+
+    @Benchmark
+    public LevelDecoder decode() {
+        return new LevelDecoder(image);
+    }
+}
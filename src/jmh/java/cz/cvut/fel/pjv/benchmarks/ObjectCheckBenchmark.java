@@ -0,0 +1,51 @@
+package cz.cvut.fel.pjv.benchmarks;
+
+import cz.cvut.fel.pjv.characters.Player;
+import cz.cvut.fel.pjv.gamestates.Playing;
+import cz.cvut.fel.pjv.levels.Level;
+import cz.cvut.fel.pjv.main.HeadlessSimulation;
+import cz.cvut.fel.pjv.objects.ObjectManager;
+import cz.cvut.fel.pjv.utils.AABB;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the per-tick checks of the player against the objects of a level.
+ * The objects fill a level three tiles deep from the fourth column on, and the player stands at the start of it,
+ * away from all objects. The checks only look at the objects in the grid columns the player's box touches,
+ * so nothing is picked up and the cost should not grow with the number of objects in the level.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ObjectCheckBenchmark {
+    @Param({"10", "1000", "100000"})
+    private int objects;
+
+    private ObjectManager objectManager;
+    private Player player;
+    private AABB hitBox;
+
+    @Setup(org.openjdk.jmh.annotations.Level.Trial)
+    public void setUp() {
+        Playing playing = new HeadlessSimulation().getPlaying();
+        player = playing.getPlayer();
+        hitBox = new AABB(0, 0, 30, 39);
+        objectManager = new ObjectManager(playing);
+        objectManager.loadObjects(new Level(LevelImages.withObjects(objects)));
+    }
+
+    @Benchmark
+    public void checkObjectTouched() {
+        objectManager.checkObjectTouched(hitBox);
+    }
+
+    @Benchmark
+    public void checkSpikeTouched() {
+        objectManager.checkSpikeTouched(player);
+    }
+}
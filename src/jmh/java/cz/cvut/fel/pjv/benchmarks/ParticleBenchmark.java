@@ -0,0 +1,42 @@
+package cz.cvut.fel.pjv.benchmarks;
+
+import cz.cvut.fel.pjv.effects.ParticleSystem;
+import cz.cvut.fel.pjv.render.RenderSnapshot;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures one tick of the particle system with a steady number of live particles,
+ * including copying them into a render snapshot. Each tick emits as many particles as expire on average.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ParticleBenchmark {
+    @Param({"1000", "20000"})
+    private int particles;
+
+    private ParticleSystem system;
+    private RenderSnapshot snapshot;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        system = new ParticleSystem(ParticleSystem.DEFAULT_CAPACITY);
+        snapshot = new RenderSnapshot();
+        system.emit(ParticleSystem.DEATH, 500, 300, particles);
+    }
+
+    @Benchmark
+    public int tick() {
+        if (system.count() < particles) {
+            system.emit(ParticleSystem.DEATH, 500, 300, particles - system.count());
+        }
+        system.update();
+        system.writeSnapshot(snapshot);
+        return system.count();
+    }
+}
@@ -0,0 +1,123 @@
+package cz.cvut.fel.pjv.benchmarks;
+
+import cz.cvut.fel.pjv.main.Game;
+import cz.cvut.fel.pjv.render.RenderQueue;
+import cz.cvut.fel.pjv.render.ScalingStrategy;
+import cz.cvut.fel.pjv.render.SpriteRegion;
+import cz.cvut.fel.pjv.utils.LoadSave;
+import javafx.application.Platform;
+import javafx.scene.Scene;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.image.Image;
+import javafx.scene.image.WritableImage;
+import javafx.scene.layout.StackPane;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the scaling strategies by drawing a frame of player sprites and rasterizing it with a snapshot,
+ * which includes scaling the native canvas up for NATIVE_TARGET. Each strategy sets up its sprites and canvas
+ * the way the game does for it, and the canvas is centered in a scene of the game's size like the game's panel.
+ * The frames are drawn on the JavaFX Application Thread, so the benchmark starts the JavaFX toolkit and needs a display.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ScalingBenchmark {
+    private static final int FRAME_SIZE = 48;
+
+    @Param({"DRAW_TIME", "PRESCALED", "NATIVE_TARGET"})
+    private ScalingStrategy strategy;
+
+    @Param({"500"})
+    private int sprites;
+
+    private Canvas canvas;
+    private StackPane scene;
+    private WritableImage target;
+    private RenderQueue queue;
+    private SpriteRegion[] frames;
+    private double[] x, y;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        try {
+            Platform.startup(() -> {
+            });
+        } catch (IllegalStateException e) {
+            // The toolkit is already running
+        } catch (UnsupportedOperationException e) {
+            throw new IllegalStateException("ScalingBenchmark needs a display to start JavaFX", e);
+        }
+        Platform.setImplicitExit(false);
+
+        onFxThread(() -> {
+            Image image = LoadSave.getSpriteAtlas(LoadSave.playerAtlas);
+            SpriteRegion sheet = new SpriteRegion(image, 0, 0, image.getWidth(), image.getHeight());
+            if (strategy == ScalingStrategy.PRESCALED) {
+                sheet = sheet.scaled(LoadSave.scaleNearest(image, Game.SCALE), Game.SCALE);
+            }
+            frames = sheet.row(0, 5, FRAME_SIZE, FRAME_SIZE);
+
+            if (strategy == ScalingStrategy.NATIVE_TARGET) {
+                canvas = new Canvas(Game.GAME_WIDTH / Game.SCALE, Game.GAME_HEIGHT / Game.SCALE);
+                canvas.setScaleX(Game.SCALE);
+                canvas.setScaleY(Game.SCALE);
+                canvas.getGraphicsContext2D().setTransform(1 / Game.SCALE, 0, 0, 1 / Game.SCALE, 0, 0);
+            } else {
+                canvas = new Canvas(Game.GAME_WIDTH, Game.GAME_HEIGHT);
+            }
+            scene = new StackPane(canvas);
+            new Scene(scene, Game.GAME_WIDTH, Game.GAME_HEIGHT);
+            target = new WritableImage(Game.GAME_WIDTH, Game.GAME_HEIGHT);
+            return null;
+        });
+
+        queue = new RenderQueue(sprites);
+        Random random = new Random(42);
+        x = new double[sprites];
+        y = new double[sprites];
+        for (int i = 0; i < sprites; i++) {
+            x[i] = random.nextInt(Game.GAME_WIDTH - 72);
+            y[i] = random.nextInt(Game.GAME_HEIGHT - 72);
+        }
+    }
+
+    /**
+     * Stops the toolkit, as the JavaFX Application Thread would otherwise keep the forked JVM running.
+     */
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        Platform.exit();
+    }
+
+    @Benchmark
+    public WritableImage frame() throws Exception {
+        return onFxThread(() -> {
+            GraphicsContext gc = canvas.getGraphicsContext2D();
+            gc.clearRect(0, 0, Game.GAME_WIDTH, Game.GAME_HEIGHT);
+            for (int i = 0; i < sprites; i++) {
+                queue.submit(RenderQueue.ENEMIES, frames[i % frames.length], x[i], y[i], FRAME_SIZE * Game.SCALE, FRAME_SIZE * Game.SCALE);
+            }
+            queue.flush(gc);
+            return scene.snapshot(null, target);
+        });
+    }
+
+    /**
+     * Runs a task on the JavaFX Application Thread and waits for its result.
+     */
+    private static <T> T onFxThread(Callable<T> task) throws Exception {
+        FutureTask<T> future = new FutureTask<>(task);
+        Platform.runLater(future);
+        return future.get();
+    }
+}
@@ -30,9 +30,24 @@ public class AudioPlayer {
      * Constructs an AudioPlayer instance, loads songs and effects, and starts playing the menu song.
      */
     public AudioPlayer() {
-        loadSongs();
-        loadEffects();
-        playSong(MENU);
+        this(true);
+    }
+
+    /**
+     * Constructs an AudioPlayer instance. A disabled player creates no MediaPlayers,
+     * so it can be used without the JavaFX toolkit and all playback calls do nothing.
+     *
+     * @param enabled false to create a silent player
+     */
+    public AudioPlayer(boolean enabled) {
+        if (enabled) {
+            loadSongs();
+            loadEffects();
+            playSong(MENU);
+        } else {
+            songs = new MediaPlayer[2];
+            effects = new MediaPlayer[5];
+        }
     }
 
     /**
@@ -4,7 +4,7 @@ import static cz.cvut.fel.pjv.utils.Constants.EnemyConstants.*;
 
 /**
  * The Cat class represents an enemy of type Cat in the game.
- * It extends the abstract Enemy class and initializes specific properties for the Cat.
+ * Its hitbox size, health and damage come from the cat entry of the enemy descriptor.
  */
 public class Cat extends Enemy {
 
@@ -15,7 +15,6 @@ public class Cat extends Enemy {
      * @param y the y-coordinate of the Cat's position
      */
     public Cat(double x, double y) {
-        super(x, y, ENEMY_WIDTH, ENEMY_HEIGHT, CAT);
-        initHitBox(23, 19);
+        super(x, y, CAT);
     }
 }
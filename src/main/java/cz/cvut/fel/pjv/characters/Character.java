@@ -1,9 +1,10 @@
 package cz.cvut.fel.pjv.characters;
 
 import cz.cvut.fel.pjv.main.Game;
+import cz.cvut.fel.pjv.utils.AABB;
+import cz.cvut.fel.pjv.utils.AnimationClock;
 import javafx.scene.canvas.GraphicsContext;
 import javafx.scene.paint.Color;
-import javafx.scene.shape.Rectangle;
 
 /**
  * The Character class represents an abstract base class for characters in the game.
@@ -12,9 +13,11 @@ import javafx.scene.shape.Rectangle;
 public abstract class Character {
     protected double x, y;
     protected int width, height;
-    protected Rectangle hitBox;
-    protected Rectangle attackBox;
-    protected int animTick, animIndex;
+    protected AABB hitBox;
+    protected double prevHitBoxX, prevHitBoxY;
+    protected AABB attackBox;
+    protected AnimationClock clock = new AnimationClock();
+    protected long animStart;
     protected int state;
     protected double airSpeed;
     protected boolean inAir = false;
@@ -44,7 +47,17 @@ public abstract class Character {
      * @param height the height of the hitbox
      */
     protected void initHitBox(double width, double height) {
-        hitBox = new Rectangle(x, y, width * Game.SCALE, height * Game.SCALE);
+        hitBox = new AABB(x, y, width * Game.SCALE, height * Game.SCALE);
+        storePreviousPosition();
+    }
+
+    /**
+     * Remembers the current hitbox position as the position of the previous tick.
+     * The renderer blends between the previous and the current position.
+     */
+    protected void storePreviousPosition() {
+        prevHitBoxX = hitBox.getX();
+        prevHitBoxY = hitBox.getY();
     }
 
     /**
@@ -70,17 +83,28 @@ public abstract class Character {
         gc.strokeRect(attackBox.getX() - levelOffset, attackBox.getY(), attackBox.getWidth(), attackBox.getHeight());
     }
 
-    public Rectangle getHitBox() {
+    public AABB getHitBox() {
         return hitBox;
     }
 
+    public double getPrevHitBoxX() {
+        return prevHitBoxX;
+    }
+
+    public double getPrevHitBoxY() {
+        return prevHitBoxY;
+    }
+
     public int getState() {
         return state;
     }
 
-    public int getAnimIndex() {
-        return animIndex;
-    }
+    /**
+     * Returns the frame of the character's animation at the current time of its clock.
+     *
+     * @return the frame index
+     */
+    public abstract int getAnimIndex();
 
     public int getCurrentHealth() {
         return currentHealth;
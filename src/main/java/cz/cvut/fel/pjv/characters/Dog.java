@@ -4,7 +4,7 @@ import static cz.cvut.fel.pjv.utils.Constants.EnemyConstants.*;
 
 /**
  * The Dog class represents a specific type of enemy in the game.
- * It extends the Enemy class and initializes specific properties for the Dog enemy.
+ * Its hitbox size, health and damage come from the dog entry of the enemy descriptor.
  */
 public class Dog extends Enemy {
 
@@ -15,7 +15,6 @@ public class Dog extends Enemy {
      * @param y the y-coordinate of the dog's position
      */
     public Dog(double x, double y) {
-        super(x, y, ENEMY_WIDTH, ENEMY_HEIGHT, DOG);
-        initHitBox(30, 30);
+        super(x, y, DOG);
     }
 }
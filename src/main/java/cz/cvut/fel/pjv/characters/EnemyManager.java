@@ -1,26 +1,39 @@
 package cz.cvut.fel.pjv.characters;
 
+import cz.cvut.fel.pjv.effects.ParticleSystem;
 import cz.cvut.fel.pjv.gamestates.Playing;
 import cz.cvut.fel.pjv.levels.Level;
+import cz.cvut.fel.pjv.levels.TileMap;
+import cz.cvut.fel.pjv.main.Game;
+import cz.cvut.fel.pjv.render.RenderQueue;
+import cz.cvut.fel.pjv.render.RenderSnapshot;
+import cz.cvut.fel.pjv.render.SpriteList;
+import cz.cvut.fel.pjv.render.SpriteRegion;
+import cz.cvut.fel.pjv.utils.AABB;
+import cz.cvut.fel.pjv.utils.ActiveList;
+import cz.cvut.fel.pjv.utils.ActivityRegion;
 import cz.cvut.fel.pjv.utils.LoadSave;
-import javafx.scene.canvas.GraphicsContext;
-import javafx.scene.image.Image;
-import javafx.scene.image.WritableImage;
-import javafx.scene.shape.Rectangle;
+import cz.cvut.fel.pjv.utils.SpatialGrid;
 
-import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.concurrent.ForkJoinPool;
 
-import static cz.cvut.fel.pjv.utils.Constants.EnemyConstants.*;
+import static cz.cvut.fel.pjv.utils.Constants.Directions.*;
 
 /**
  * Manages the enemies in the game, including loading images, updating states, and rendering.
  */
 public class EnemyManager {
     private Playing playing;
-    private Image[][] dogArray, catArray;
-    private ArrayList<Dog> dogs = new ArrayList<>();
-    private ArrayList<Cat> cats = new ArrayList<>();
-    public boolean isAnyActiveEnemy;
+    private final EnemyRegistry registry = EnemyRegistry.getDefault();
+    private SpriteRegion[][][] enemyImages;
+    private final EnemyStore enemies = new EnemyStore(64);
+    private final SpatialGrid enemyGrid = new SpatialGrid(Game.TILES_SIZE);
+    private final ActiveList alive = new ActiveList(64);
+    private int[] awake = new int[64];
+    private int awakeCount;
+    private ForkJoinPool pool;
 
     /**
      * Constructs an EnemyManager instance and loads enemy images.
@@ -28,132 +41,219 @@ public class EnemyManager {
      */
     public EnemyManager(Playing playing) {
         this.playing = playing;
-        loadEnemyImages();
+        enemies.setClock(playing.getAnimationClock());
+        if (!playing.isHeadless()) {
+            loadEnemyImages();
+        }
     }
 
     /**
-     * Loads enemies for the given level.
+     * Loads enemies for the given level. The manager plays on a copy, so the level keeps its spawn state.
      * @param level the level containing enemies
      */
     public void loadEnemies(Level level) {
-        dogs = level.getDogs();
-        cats = level.getCats();
+        enemies.copyFrom(level.getEnemies());
+        awakeCount = 0;
+        enemyGrid.resize(level.getTileMap().getWidth());
+        rebuildGrid();
     }
 
     /**
-     * Loads enemy images from resources.
+     * Puts the active enemies into the alive list and into the grid at their current positions.
+     * An enemy's id in the grid is its id in the store.
      */
-    private void loadEnemyImages() {
-        dogArray = new Image[5][6];
-        Image temp = LoadSave.getSpriteAtlas(LoadSave.dogSprite);
-        for (int j = 0; j < dogArray.length; j++) {
-            for (int i = 0; i < dogArray[j].length; i++) {
-                dogArray[j][i] = new WritableImage(temp.getPixelReader(), i * ENEMY_DEFAULT_WIDTH, j * ENEMY_DEFAULT_HEIGHT, ENEMY_DEFAULT_WIDTH, ENEMY_DEFAULT_HEIGHT);
+    private void rebuildGrid() {
+        enemyGrid.clear();
+        alive.clear();
+        for (int id = 0; id < enemies.size(); id++) {
+            if (enemies.isActive(id)) {
+                alive.add(id);
+                enemyGrid.insert(id, enemies.getX(id), enemies.getY(id), enemies.getWidth(id), enemies.getHeight(id));
             }
         }
+    }
 
-        catArray = new Image[5][6];
-        Image temp2 = LoadSave.getSpriteAtlas(LoadSave.catSprite);
-        for (int j = 0; j < catArray.length; j++) {
-            for (int i = 0; i < catArray[j].length; i++) {
-                catArray[j][i] = new WritableImage(temp2.getPixelReader(), i * ENEMY_DEFAULT_WIDTH, j * ENEMY_DEFAULT_HEIGHT, ENEMY_DEFAULT_WIDTH, ENEMY_DEFAULT_HEIGHT);
+    /**
+     * Loads enemy images from resources. The frames are regions of the sprite sheets indexed by type, state and frame.
+     * Types that use the same sprite sheet share the loaded sheet.
+     */
+    private void loadEnemyImages() {
+        HashMap<String, SpriteRegion> sheets = new HashMap<>();
+        enemyImages = new SpriteRegion[registry.size()][][];
+        for (int type = 0; type < registry.size(); type++) {
+            EnemyType t = registry.get(type);
+            SpriteRegion sheet = sheets.computeIfAbsent(t.getSprite(), LoadSave::getSprite);
+            enemyImages[type] = new SpriteRegion[EnemyType.STATE_NAMES.length][];
+            for (int state = 0; state < enemyImages[type].length; state++) {
+                enemyImages[type][state] = sheet.row(t.getRow(state), t.getSpriteAmount(state), t.getFrameWidth(), t.getFrameHeight());
             }
         }
     }
 
     /**
-     * Updates the state of all active enemies.
-     * @param levelData the data of the current level
+     * Updates the active enemies inside the activity region. The enemies outside of it sleep and keep their state.
+     * Enemies that die are dropped from the alive list and the grid, so later ticks never visit them.
+     * @param tileMap the tiles of the current level
      * @param player the player interacting with enemies
+     * @param region the part of the level where enemies are awake
      */
-    public void update(int[][] levelData, Player player) {
-        isAnyActiveEnemy = false;
-        for (Dog d : dogs) {
-            if (d.isActive()) {
-                d.update(levelData, player);
-                isAnyActiveEnemy = true;
-            }
-        }
-        for (Cat c : cats) {
-            if (c.isActive()) {
-                c.update(levelData, player);
-                isAnyActiveEnemy = true;
+    public void update(TileMap tileMap, Player player, ActivityRegion region) {
+        findAwakeEnemies(region);
+        enemies.update(awake, awakeCount, tileMap, player, pool);
+        for (int i = 0; i < awakeCount; i++) {
+            int id = awake[i];
+            if (enemies.isActive(id)) {
+                enemyGrid.move(id, enemies.getX(id), enemies.getY(id), enemies.getWidth(id), enemies.getHeight(id));
+            } else if (alive.remove(id)) {
+                enemyGrid.remove(id);
+                emit(ParticleSystem.DEATH, id, 24);
             }
         }
     }
 
     /**
-     * Draws all active enemies on the canvas.
-     * @param gc the graphics context to draw on
-     * @param xLevelOffset the horizontal offset for level scrolling
+     * Collects the ids of the active enemies whose hitbox touches the activity region, in ascending order.
+     * The grid only returns candidates from the columns of the region, so this does not depend on the size of the level.
      */
-    public void draw(GraphicsContext gc, int xLevelOffset) {
-        drawDog(gc, xLevelOffset);
-        drawCat(gc, xLevelOffset);
+    private void findAwakeEnemies(ActivityRegion region) {
+        awakeCount = 0;
+        if (region.getColumnCount(Game.TILES_SIZE) > alive.size()) {
+            // With more columns in the region than alive enemies, scanning the alive list is cheaper
+            if (awake.length < alive.size()) {
+                awake = new int[alive.size()];
+            }
+            for (int i = 0; i < alive.size(); i++) {
+                int id = alive.get(i);
+                if (isAwake(id, region)) {
+                    awake[awakeCount++] = id;
+                }
+            }
+            Arrays.sort(awake, 0, awakeCount);
+            return;
+        }
+        int found = enemyGrid.query(region.getX(), region.getY(), region.getWidth(), region.getHeight());
+        if (awake.length < found) {
+            awake = new int[Math.max(found, awake.length * 2)];
+        }
+        for (int i = 0; i < found; i++) {
+            int id = enemyGrid.getQueryResult(i);
+            if (isAwake(id, region)) {
+                awake[awakeCount++] = id;
+            }
+        }
+        // Keep the update and draw order in id order, independent of the order of the columns and of swap-removals
+        Arrays.sort(awake, 0, awakeCount);
+    }
+
+    private boolean isAwake(int id, ActivityRegion region) {
+        return enemies.isActive(id) && region.intersects(enemies.getX(id), enemies.getY(id), enemies.getWidth(id), enemies.getHeight(id));
     }
 
     /**
-     * Draws all active cats on the canvas.
-     * @param gc the graphics context to draw on
-     * @param xLevelOffset the horizontal offset for level scrolling
+     * Writes the sprites of the active enemies that were updated in the last tick into a render snapshot.
+     * Sleeping enemies are outside the activity region, which always covers the screen.
+     * @param snapshot the snapshot to fill
      */
-    private void drawCat(GraphicsContext gc, int xLevelOffset) {
-        for (Cat c : cats) {
-            if (c.isActive()) {
-                gc.drawImage(catArray[c.getState()][c.getAnimIndex()], (int) (c.getHitBox().getX() - CAT_DRAW_OFFSET_X - xLevelOffset) + c.flipX(), (int) c.getHitBox().getY() - CAT_DRAW_OFFSET_Y, ENEMY_WIDTH * c.flipW(), ENEMY_HEIGHT);
-//                c.drawHitBox(gc, xLevelOffset);
-//                c.drawAttackBox(gc, xLevelOffset);
+    public void writeSnapshot(RenderSnapshot snapshot) {
+        SpriteList sprites = snapshot.getEnemies();
+        for (int i = 0; i < awakeCount; i++) {
+            int id = awake[i];
+            if (enemies.isActive(id)) {
+                int type = enemies.getType(id);
+                int xOffset = registry.get(type).getDrawOffsetX();
+                int yOffset = registry.get(type).getDrawOffsetY();
+                sprites.add(type, enemies.getState(id), enemies.getAnimIndex(id), enemies.getWalkDirection(id) != RIGHT,
+                        enemies.getPrevX(id) - xOffset, enemies.getPrevY(id) - yOffset, enemies.getX(id) - xOffset, enemies.getY(id) - yOffset);
             }
         }
     }
 
     /**
-     * Draws all active dogs on the canvas.
-     * @param gc the graphics context to draw on
-     * @param xLevelOffset the horizontal offset for level scrolling
+     * Submits the enemies of a render snapshot to the render queue.
+     * @param queue the render queue to submit to
+     * @param snapshot the snapshot to draw
+     * @param alpha the fraction of the tick elapsed since the snapshot, used to blend positions
      */
-    private void drawDog(GraphicsContext gc, int xLevelOffset) {
-        for (Dog d : dogs) {
-            if (d.isActive()) {
-                gc.drawImage(dogArray[d.getState()][d.getAnimIndex()], (int) (d.getHitBox().getX() - DOG_DRAW_OFFSET_X - xLevelOffset) + d.flipX(), (int) d.getHitBox().getY() - DOG_DRAW_OFFSET_Y, ENEMY_WIDTH * d.flipW(), ENEMY_HEIGHT);
-//                d.drawHitBox(gc, xLevelOffset);
-//                d.drawAttackBox(gc, xLevelOffset);
-            }
+    public void draw(RenderQueue queue, RenderSnapshot snapshot, double alpha) {
+        SpriteList sprites = snapshot.getEnemies();
+        int xLevelOffset = snapshot.getXLevelOffset(alpha);
+        for (int i = 0; i < sprites.size(); i++) {
+            EnemyType type = registry.get(sprites.getType(i));
+            int flipX = sprites.isFlipped(i) ? type.getDrawWidth() : 0;
+            int flipW = sprites.isFlipped(i) ? -1 : 1;
+            queue.submit(RenderQueue.ENEMIES, enemyImages[sprites.getType(i)][sprites.getState(i)][sprites.getAnimIndex(i)], (int) (sprites.getX(i, alpha) - xLevelOffset) + flipX, (int) sprites.getY(i, alpha), type.getDrawWidth() * flipW, type.getDrawHeight());
         }
     }
 
     /**
-     * Checks if any enemy is hit by the player's attack box.
+     * Checks if any enemy is hit by the player's attack box. Only the enemies in the grid cells
+     * around the attack box are tested. If several are hit, the one with the lowest id is hurt.
      * @param attackBox the attack box of the player
      */
-    public void checkEnemyHit(Rectangle attackBox) {
-        for (Dog d : dogs) {
-            if (d.isActive()) {
-                if (attackBox.intersects(d.getHitBox().getX(), d.getHitBox().getY(), d.getHitBox().getWidth(), d.getHitBox().getHeight())) {
-                    d.hurt(10);
-                    return;
+    public void checkEnemyHit(AABB attackBox) {
+        int hit = -1;
+        int found = enemyGrid.query(attackBox.getX(), attackBox.getY(), attackBox.getWidth(), attackBox.getHeight());
+        for (int i = 0; i < found; i++) {
+            int id = enemyGrid.getQueryResult(i);
+            if (enemies.isActive(id) && (hit < 0 || id < hit)) {
+                if (enemies.intersects(id, attackBox)) {
+                    hit = id;
                 }
             }
         }
-        for (Cat c : cats) {
-            if (c.isActive()) {
-                if (attackBox.intersects(c.getHitBox().getX(), c.getHitBox().getY(), c.getHitBox().getWidth(), c.getHitBox().getHeight())) {
-                    c.hurt(10);
-                    return;
-                }
-            }
+        if (hit >= 0) {
+            enemies.hurt(hit, 10);
+            emit(ParticleSystem.HIT, hit, 12);
         }
     }
 
+    /**
+     * Emits a burst of particles from the center of an enemy.
+     */
+    private void emit(int particleKind, int id, int amount) {
+        playing.getParticles().emit(particleKind, enemies.getX(id) + enemies.getWidth(id) / 2, enemies.getY(id) + enemies.getHeight(id) / 2, amount);
+    }
+
     /**
      * Resets all enemies to their initial state.
      */
     public void resetAllEnemies() {
-        for (Dog d : dogs) {
-            d.resetEnemy();
+        enemies.resetAll();
+        awakeCount = 0;
+        rebuildGrid();
+    }
+
+    /**
+     * Sets how many threads update the enemies. With more than one thread, ticks with at least
+     * EnemyStore.PARALLEL_THRESHOLD awake enemies run their AI on a ForkJoinPool; the game plays the same either way.
+     * @param threads the number of threads, 1 to update on the calling thread only
+     */
+    public void setParallelism(int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("Thread count must be positive: " + threads);
         }
-        for (Cat c : cats) {
-            c.resetEnemy();
+        if (pool != null) {
+            pool.shutdown();
+            pool = null;
         }
+        if (threads > 1) {
+            pool = new ForkJoinPool(threads);
+        }
+    }
+
+    /**
+     * Returns the number of enemies that are still alive. The level is completed once none are left and all stars are collected.
+     * @return the number of active enemies
+     */
+    public int getRemainingEnemies() {
+        return alive.size();
+    }
+
+    public int getParallelism() {
+        return pool == null ? 1 : pool.getParallelism();
+    }
+
+    public EnemyStore getEnemies() {
+        return enemies;
     }
 }
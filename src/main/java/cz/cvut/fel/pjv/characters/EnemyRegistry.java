@@ -0,0 +1,149 @@
+package cz.cvut.fel.pjv.characters;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import java.util.Properties;
+
+/**
+ * The list of all enemy types, loaded from a descriptor in the properties format.
+ * The game uses the types from the enemies.properties resource; adding a type there
+ * is all it takes to spawn it from level images, update and draw it.
+ */
+public class EnemyRegistry {
+    public static final String DEFAULT_DESCRIPTOR = "enemies.properties";
+
+    private static final int PLAYER_SPAWN_KEY = 255;
+    private static EnemyRegistry defaultRegistry;
+
+    private final EnemyType[] types;
+    private final int[] typeByColorKey = new int[256];
+
+    /**
+     * Constructs an EnemyRegistry from a parsed descriptor.
+     *
+     * @param properties the descriptor
+     * @throws IllegalArgumentException if an entry is missing or invalid
+     */
+    public EnemyRegistry(Properties properties) {
+        String list = properties.getProperty("types");
+        if (list == null || list.isBlank()) {
+            throw new IllegalArgumentException("Enemy descriptor has no types");
+        }
+        String[] names = list.split(",");
+        types = new EnemyType[names.length];
+        Arrays.fill(typeByColorKey, -1);
+        for (int id = 0; id < names.length; id++) {
+            types[id] = parseType(properties, id, names[id].trim());
+            int key = types[id].getColorKey();
+            if (typeByColorKey[key] >= 0) {
+                throw new IllegalArgumentException("Enemy types " + types[typeByColorKey[key]].getName() + " and " + names[id].trim() + " share color key " + key);
+            }
+            typeByColorKey[key] = id;
+        }
+    }
+
+    /**
+     * Returns the registry of the enemies.properties resource, loading it on first use.
+     *
+     * @return the default registry
+     */
+    public static synchronized EnemyRegistry getDefault() {
+        if (defaultRegistry == null) {
+            try (InputStream is = EnemyRegistry.class.getResourceAsStream("/" + DEFAULT_DESCRIPTOR)) {
+                if (is == null) {
+                    throw new IllegalStateException("Missing resource: " + DEFAULT_DESCRIPTOR);
+                }
+                defaultRegistry = load(is);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        return defaultRegistry;
+    }
+
+    /**
+     * Loads a registry from a descriptor stream.
+     *
+     * @param in the descriptor in the properties format
+     * @return the loaded registry
+     * @throws IOException if the stream cannot be read
+     */
+    public static EnemyRegistry load(InputStream in) throws IOException {
+        Properties properties = new Properties();
+        properties.load(in);
+        return new EnemyRegistry(properties);
+    }
+
+    private static EnemyType parseType(Properties properties, int id, String name) {
+        int[] frame = getPair(properties, name, "frame");
+        int[] hitBox = getPair(properties, name, "hitBox");
+        int[] drawOffset = getPair(properties, name, "drawOffset");
+        int colorKey = getInt(properties, name, "colorKey");
+        if (colorKey < 0 || colorKey >= PLAYER_SPAWN_KEY) {
+            throw new IllegalArgumentException("Invalid color key of enemy type " + name + ": " + colorKey);
+        }
+
+        String[] states = EnemyType.STATE_NAMES;
+        int[] rows = new int[states.length];
+        int[] frames = new int[states.length];
+        for (int state = 0; state < states.length; state++) {
+            int[] animation = getPair(properties, name, states[state]);
+            rows[state] = animation[0];
+            frames[state] = animation[1];
+        }
+
+        return new EnemyType(id, name, getString(properties, name, "sprite"), frame[0], frame[1], colorKey,
+                hitBox[0], hitBox[1], drawOffset[0], drawOffset[1], getInt(properties, name, "attackOffsetY"),
+                getInt(properties, name, "health"), getInt(properties, name, "damage"), rows, frames);
+    }
+
+    private static String getString(Properties properties, String name, String key) {
+        String value = properties.getProperty(name + "." + key);
+        if (value == null) {
+            throw new IllegalArgumentException("Missing " + name + "." + key + " in the enemy descriptor");
+        }
+        return value.trim();
+    }
+
+    private static int getInt(Properties properties, String name, String key) {
+        String value = getString(properties, name, key);
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid " + name + "." + key + ": " + value, e);
+        }
+    }
+
+    private static int[] getPair(Properties properties, String name, String key) {
+        String value = getString(properties, name, key);
+        String[] parts = value.split(",");
+        if (parts.length != 2) {
+            throw new IllegalArgumentException("Expected two numbers in " + name + "." + key + ": " + value);
+        }
+        try {
+            return new int[]{Integer.parseInt(parts[0].trim()), Integer.parseInt(parts[1].trim())};
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid " + name + "." + key + ": " + value, e);
+        }
+    }
+
+    /**
+     * Returns the type spawned by a green value of a level image.
+     *
+     * @param colorKey the green value of a pixel
+     * @return the id of the type, or -1 if no enemy uses the value
+     */
+    public int getTypeByColorKey(int colorKey) {
+        return typeByColorKey[colorKey & 0xFF];
+    }
+
+    public EnemyType get(int id) {
+        return types[id];
+    }
+
+    public int size() {
+        return types.length;
+    }
+}
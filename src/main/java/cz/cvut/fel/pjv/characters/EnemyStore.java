@@ -0,0 +1,647 @@
+package cz.cvut.fel.pjv.characters;
+
+import cz.cvut.fel.pjv.levels.TileMap;
+import cz.cvut.fel.pjv.main.Game;
+import cz.cvut.fel.pjv.utils.AABB;
+import cz.cvut.fel.pjv.utils.AnimationClock;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import static cz.cvut.fel.pjv.utils.AdditionalMethods.*;
+import static cz.cvut.fel.pjv.utils.Constants.GRAVITY;
+import static cz.cvut.fel.pjv.utils.Constants.Directions.*;
+import static cz.cvut.fel.pjv.utils.Constants.EnemyConstants.*;
+
+/**
+ * Holds the state of many enemies in parallel primitive arrays indexed by the enemy id.
+ * What differs between enemy types is read from the EnemyType of each enemy, so all types share one update path.
+ * The ids are dense, from 0 to size() - 1, and stay the same for the life of the store.
+ * update(int[], ...) runs every system (behaviour, attack box, animation) as a separate pass over the arrays,
+ * so a level with thousands of enemies is updated without visiting one object per enemy.
+ * Animation frames are derived from the time each animation started on an AnimationClock;
+ * only enemies playing an animation that ends, like an attack, are looked at by the animation pass.
+ * Large updates can spread the passes over the threads of a ForkJoinPool.
+ */
+public class EnemyStore {
+    private static final double WALK_SPEED = 0.5d * Game.SCALE;
+    private static final double ATTACK_DISTANCE = Game.TILES_SIZE;
+    private static final double ATTACK_BOX_SIZE = 20 * Game.SCALE;
+    /**
+     * Below this many enemies an update runs on the calling thread even if a pool is given.
+     */
+    public static final int PARALLEL_THRESHOLD = 2048;
+    private static final int PARALLEL_CHUNK = 512;
+    private static final byte EVENT_HIT_PLAYER = 1;
+    private static final byte EVENT_DIED = 2;
+
+    private final EnemyType[] types;
+    private int size;
+    private int activeCount;
+    private int[] type;
+    private double[] spawnX, spawnY;
+    private double[] x, y, width, height;
+    private double[] prevX, prevY;
+    private double[] attackX, attackY;
+    private double[] airSpeed;
+    private boolean[] inAir, firstUpdate, attackChecked, active;
+    private int[] state;
+    private long[] animStart, animTime;
+    private int[] health, maxHealth;
+    private int[] walkDirection, yTile;
+    private byte[] events;
+    private AnimationClock clock = new AnimationClock();
+
+    /**
+     * Constructs an empty EnemyStore with the given initial capacity.
+     *
+     * @param capacity the initial capacity
+     */
+    public EnemyStore(int capacity) {
+        EnemyRegistry registry = EnemyRegistry.getDefault();
+        types = new EnemyType[registry.size()];
+        for (int i = 0; i < types.length; i++) {
+            types[i] = registry.get(i);
+        }
+        allocate(Math.max(1, capacity));
+    }
+
+    private void allocate(int capacity) {
+        type = new int[capacity];
+        spawnX = new double[capacity];
+        spawnY = new double[capacity];
+        x = new double[capacity];
+        y = new double[capacity];
+        width = new double[capacity];
+        height = new double[capacity];
+        prevX = new double[capacity];
+        prevY = new double[capacity];
+        attackX = new double[capacity];
+        attackY = new double[capacity];
+        airSpeed = new double[capacity];
+        inAir = new boolean[capacity];
+        firstUpdate = new boolean[capacity];
+        attackChecked = new boolean[capacity];
+        active = new boolean[capacity];
+        state = new int[capacity];
+        animStart = new long[capacity];
+        animTime = new long[capacity];
+        health = new int[capacity];
+        maxHealth = new int[capacity];
+        walkDirection = new int[capacity];
+        yTile = new int[capacity];
+        events = new byte[capacity];
+    }
+
+    /**
+     * Grows all arrays to at least the given capacity.
+     */
+    private void ensureCapacity(int capacity) {
+        if (capacity <= type.length) {
+            return;
+        }
+        capacity = Math.max(capacity, type.length * 2);
+        type = Arrays.copyOf(type, capacity);
+        spawnX = Arrays.copyOf(spawnX, capacity);
+        spawnY = Arrays.copyOf(spawnY, capacity);
+        x = Arrays.copyOf(x, capacity);
+        y = Arrays.copyOf(y, capacity);
+        width = Arrays.copyOf(width, capacity);
+        height = Arrays.copyOf(height, capacity);
+        prevX = Arrays.copyOf(prevX, capacity);
+        prevY = Arrays.copyOf(prevY, capacity);
+        attackX = Arrays.copyOf(attackX, capacity);
+        attackY = Arrays.copyOf(attackY, capacity);
+        airSpeed = Arrays.copyOf(airSpeed, capacity);
+        inAir = Arrays.copyOf(inAir, capacity);
+        firstUpdate = Arrays.copyOf(firstUpdate, capacity);
+        attackChecked = Arrays.copyOf(attackChecked, capacity);
+        active = Arrays.copyOf(active, capacity);
+        state = Arrays.copyOf(state, capacity);
+        animStart = Arrays.copyOf(animStart, capacity);
+        animTime = Arrays.copyOf(animTime, capacity);
+        health = Arrays.copyOf(health, capacity);
+        maxHealth = Arrays.copyOf(maxHealth, capacity);
+        walkDirection = Arrays.copyOf(walkDirection, capacity);
+        yTile = Arrays.copyOf(yTile, capacity);
+        events = Arrays.copyOf(events, capacity);
+    }
+
+    /**
+     * Adds an enemy standing idle at its spawn position.
+     *
+     * @param enemyType the id of the enemy's type in the registry
+     * @param spawnX the x-coordinate of the enemy's spawn position
+     * @param spawnY the y-coordinate of the enemy's spawn position
+     * @return the id of the new enemy
+     */
+    public int add(int enemyType, double spawnX, double spawnY) {
+        EnemyType t = types[enemyType];
+        ensureCapacity(size + 1);
+        int id = size++;
+        type[id] = enemyType;
+        this.spawnX[id] = spawnX;
+        this.spawnY[id] = spawnY;
+        x[id] = spawnX;
+        y[id] = spawnY;
+        width[id] = t.getHitBoxWidth() * Game.SCALE;
+        height[id] = t.getHitBoxHeight() * Game.SCALE;
+        prevX[id] = spawnX;
+        prevY[id] = spawnY;
+        attackX[id] = spawnX;
+        attackY[id] = spawnY;
+        airSpeed[id] = 0;
+        inAir[id] = false;
+        firstUpdate[id] = true;
+        attackChecked[id] = false;
+        active[id] = true;
+        activeCount++;
+        state[id] = IDLE;
+        animStart[id] = clock.getTime();
+        animTime[id] = animStart[id];
+        maxHealth[id] = t.getMaxHealth();
+        health[id] = maxHealth[id];
+        walkDirection[id] = LEFT;
+        yTile[id] = 0;
+        return id;
+    }
+
+    /**
+     * Replaces the content of this store with a copy of another store.
+     * Levels keep their enemies in a store that is never updated and the enemy manager plays on a copy.
+     *
+     * @param other the store to copy
+     */
+    public void copyFrom(EnemyStore other) {
+        size = 0;
+        ensureCapacity(other.size);
+        int n = other.size;
+        System.arraycopy(other.type, 0, type, 0, n);
+        System.arraycopy(other.spawnX, 0, spawnX, 0, n);
+        System.arraycopy(other.spawnY, 0, spawnY, 0, n);
+        System.arraycopy(other.x, 0, x, 0, n);
+        System.arraycopy(other.y, 0, y, 0, n);
+        System.arraycopy(other.width, 0, width, 0, n);
+        System.arraycopy(other.height, 0, height, 0, n);
+        System.arraycopy(other.prevX, 0, prevX, 0, n);
+        System.arraycopy(other.prevY, 0, prevY, 0, n);
+        System.arraycopy(other.attackX, 0, attackX, 0, n);
+        System.arraycopy(other.attackY, 0, attackY, 0, n);
+        System.arraycopy(other.airSpeed, 0, airSpeed, 0, n);
+        System.arraycopy(other.inAir, 0, inAir, 0, n);
+        System.arraycopy(other.firstUpdate, 0, firstUpdate, 0, n);
+        System.arraycopy(other.attackChecked, 0, attackChecked, 0, n);
+        System.arraycopy(other.active, 0, active, 0, n);
+        System.arraycopy(other.state, 0, state, 0, n);
+        System.arraycopy(other.animStart, 0, animStart, 0, n);
+        System.arraycopy(other.animTime, 0, animTime, 0, n);
+        System.arraycopy(other.health, 0, health, 0, n);
+        System.arraycopy(other.maxHealth, 0, maxHealth, 0, n);
+        System.arraycopy(other.walkDirection, 0, walkDirection, 0, n);
+        System.arraycopy(other.yTile, 0, yTile, 0, n);
+        Arrays.fill(events, 0, n, (byte) 0);
+        size = n;
+        activeCount = other.activeCount;
+    }
+
+    /**
+     * Updates the given enemies, skipping inactive ones, in two phases.
+     * The first phase moves and animates every enemy and only writes the enemy's own fields;
+     * effects on anything else, like damage to the player, are recorded as events.
+     * With a pool and enough enemies the first phase runs in parallel.
+     * The second phase applies the events on the calling thread in the order of the ids,
+     * so the result is the same with and without the pool.
+     *
+     * @param ids the ids of the enemies to update
+     * @param count the number of ids
+     * @param tileMap the tiles of the level
+     * @param player the player the enemies chase and attack
+     * @param pool the pool for the parallel phase, or null to update on the calling thread
+     */
+    public void update(int[] ids, int count, TileMap tileMap, Player player, ForkJoinPool pool) {
+        if (pool == null || count < PARALLEL_THRESHOLD) {
+            simulate(ids, 0, count, tileMap, player);
+        } else {
+            pool.invoke(new SimulateTask(ids, 0, count, tileMap, player));
+        }
+        for (int i = 0; i < count; i++) {
+            applyEvents(ids[i], player);
+        }
+    }
+
+    /**
+     * Updates the behaviour, attack box and animation of one enemy.
+     *
+     * @param id the id of the enemy
+     * @param tileMap the tiles of the level
+     * @param player the player the enemy chases and attacks
+     */
+    public void update(int id, TileMap tileMap, Player player) {
+        prevX[id] = x[id];
+        prevY[id] = y[id];
+        resumeAnimation(id);
+        updateBehaviour(id, tileMap, player);
+        updateAttackBox(id);
+        updateAnimation(id);
+        applyEvents(id, player);
+    }
+
+    /**
+     * The first phase of an update for a range of the ids. Each system runs as its own pass over the range.
+     * Enemies do not affect each other here, so ranges can be simulated concurrently.
+     */
+    private void simulate(int[] ids, int from, int to, TileMap tileMap, Player player) {
+        for (int i = from; i < to; i++) {
+            int id = ids[i];
+            if (active[id]) {
+                prevX[id] = x[id];
+                prevY[id] = y[id];
+                resumeAnimation(id);
+                updateBehaviour(id, tileMap, player);
+            }
+        }
+        for (int i = from; i < to; i++) {
+            int id = ids[i];
+            if (active[id]) {
+                updateAttackBox(id);
+            }
+        }
+        for (int i = from; i < to; i++) {
+            int id = ids[i];
+            if (active[id] && !isLooping(state[id])) {
+                updateAnimation(id);
+            }
+        }
+    }
+
+    /**
+     * The second phase of an update: applies the events an enemy recorded in the first phase.
+     */
+    private void applyEvents(int id, Player player) {
+        if ((events[id] & EVENT_HIT_PLAYER) != 0) {
+            player.changeHealth(-types[type[id]].getDamage());
+        }
+        if ((events[id] & EVENT_DIED) != 0) {
+            activeCount--;
+        }
+        events[id] = 0;
+    }
+
+    /**
+     * Splits the first phase of an update into ranges of ids for a ForkJoinPool.
+     * ForkJoinTask is Serializable, but the tasks only live for one update and are never serialized.
+     */
+    @SuppressWarnings("serial")
+    private class SimulateTask extends RecursiveAction {
+        private final int[] ids;
+        private final int from, to;
+        private final TileMap tileMap;
+        private final Player player;
+
+        SimulateTask(int[] ids, int from, int to, TileMap tileMap, Player player) {
+            this.ids = ids;
+            this.from = from;
+            this.to = to;
+            this.tileMap = tileMap;
+            this.player = player;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= PARALLEL_CHUNK) {
+                simulate(ids, from, to, tileMap, player);
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new SimulateTask(ids, from, middle, tileMap, player), new SimulateTask(ids, middle, to, tileMap, player));
+        }
+    }
+
+    /**
+     * Checks if the animation of a state repeats until the state changes. Looping animations need no update.
+     */
+    private static boolean isLooping(int enemyState) {
+        return enemyState == IDLE || enemyState == RUN;
+    }
+
+    /**
+     * Marks the animation of an enemy as run until the end of the current tick.
+     */
+    private void resumeAnimation(int id) {
+        animStart[id] = getAnimStart(id);
+        animTime[id] = clock.getStepTime();
+    }
+
+    /**
+     * Returns the start of an enemy's animation, moved by the time the enemy slept since its last update,
+     * as its animation only runs in the ticks it is updated.
+     */
+    private long getAnimStart(int id) {
+        return animStart[id] + clock.getTime() - animTime[id];
+    }
+
+    /**
+     * The animation step of an enemy: ends its state once its animation has played.
+     * Attacks and hurts return to idle, starting with the next tick, and dying deactivates.
+     */
+    private void updateAnimation(int id) {
+        if (!clock.isFinished(animStart[id], types[type[id]].getSpriteAmount(state[id]))) {
+            return;
+        }
+        switch (state[id]) {
+            case ATTACK, HURT -> changeState(id, IDLE, clock.getStepTime());
+            case DIE -> {
+                if (active[id]) {
+                    active[id] = false;
+                    events[id] |= EVENT_DIED;
+                }
+            }
+        }
+    }
+
+    private void updateAttackBox(int id) {
+        if (walkDirection[id] == RIGHT) {
+            attackX[id] = x[id] + width[id] + (int) (7 * Game.SCALE);
+        } else if (walkDirection[id] == LEFT) {
+            attackX[id] = x[id] - width[id] + (int) (10 * Game.SCALE);
+        }
+        attackY[id] = y[id] + types[type[id]].getAttackOffsetY();
+    }
+
+    /**
+     * Updates the enemy's behavior based on its current state, environment, and player interactions.
+     */
+    private void updateBehaviour(int id, TileMap tileMap, Player player) {
+        // Check if this is the first update and if the enemy is in the air
+        if (firstUpdate[id]) {
+            if (!isEntityOnFloor(x[id], y[id], width[id], height[id], tileMap)) {
+                inAir[id] = true;
+            }
+            firstUpdate[id] = false;
+        }
+
+        // Handle behavior when the enemy is in the air
+        if (inAir[id]) {
+            // Check if the enemy can move down (falling); the width is also used as the height here
+            if (canMoveHere(x[id], y[id] + airSpeed[id], width[id], width[id], tileMap)) {
+                y[id] += airSpeed[id];
+                airSpeed[id] += GRAVITY;
+            } else {
+                // Enemy has landed
+                inAir[id] = false;
+                y[id] = getCharacterPositionAboveBellow(y[id], height[id], airSpeed[id]);
+                yTile[id] = (int) (y[id] / Game.TILES_SIZE);
+            }
+            return;
+        }
+
+        // Handle behavior based on the enemy's state
+        switch (state[id]) {
+            case IDLE -> changeState(id, RUN);
+            case RUN -> {
+                if (canSeePlayer(id, tileMap, player)) {
+                    turnTowardsPlayer(id, player);
+                }
+                if (isPlayerCloseForAttack(id, player)) {
+                    changeState(id, ATTACK);
+                }
+
+                double xSpeed = walkDirection[id] == LEFT ? -WALK_SPEED : WALK_SPEED;
+
+                // Move if there is free space and a floor at the new position, otherwise turn around
+                if (canMoveHere(x[id] + xSpeed, y[id], width[id], height[id], tileMap)
+                        && isFloor(x[id], y[id], width[id], height[id], xSpeed, tileMap)) {
+                    x[id] += xSpeed;
+                    return;
+                }
+                walkDirection[id] = walkDirection[id] == LEFT ? RIGHT : LEFT;
+            }
+            case ATTACK -> {
+                int frame = clock.getFrame(animStart[id]);
+                // Reset attack check at the beginning of the attack animation
+                if (frame == 0) {
+                    attackChecked[id] = false;
+                }
+                // Check if the attack can hit the player
+                if (frame == 2 && !attackChecked[id]) {
+                    checkEnemyHit(id, player);
+                }
+            }
+        }
+    }
+
+    private void turnTowardsPlayer(int id, Player player) {
+        if (player.getHitBox().getX() > x[id]) {
+            walkDirection[id] = RIGHT;
+        } else {
+            walkDirection[id] = LEFT;
+        }
+    }
+
+    /**
+     * Checks if an enemy can see the player.
+     *
+     * @param id the id of the enemy
+     * @param tileMap the tiles of the level
+     * @param player the player
+     * @return true if the enemy can see the player, false otherwise
+     */
+    public boolean canSeePlayer(int id, TileMap tileMap, Player player) {
+        int playerTileY = (int) (player.getHitBox().getY() / Game.TILES_SIZE);
+        return playerTileY == yTile[id]
+                && isPlayerInRange(id, player)
+                && isSightClear(tileMap, x[id], player.getHitBox().getX(), yTile[id]);
+    }
+
+    /**
+     * Checks if the player is within an enemy's range of sight.
+     *
+     * @param id the id of the enemy
+     * @param player the player
+     * @return true if the player is within range, false otherwise
+     */
+    public boolean isPlayerInRange(int id, Player player) {
+        int absValue = (int) Math.abs(player.getHitBox().getX() - x[id]);
+        return absValue <= ATTACK_DISTANCE * 5;
+    }
+
+    private boolean isPlayerCloseForAttack(int id, Player player) {
+        int absValue = (int) Math.abs(player.getHitBox().getX() - x[id]);
+        return absValue <= ATTACK_DISTANCE;
+    }
+
+    private void checkEnemyHit(int id, Player player) {
+        if (player.getHitBox().intersects(attackX[id], attackY[id], ATTACK_BOX_SIZE, ATTACK_BOX_SIZE)) {
+            events[id] |= EVENT_HIT_PLAYER;
+        }
+        attackChecked[id] = true;
+    }
+
+    /**
+     * Changes an enemy's state and restarts its animation at the current time of the clock.
+     *
+     * @param id the id of the enemy
+     * @param enemyState the new state
+     */
+    public void changeState(int id, int enemyState) {
+        changeState(id, enemyState, clock.getTime());
+    }
+
+    private void changeState(int id, int enemyState, long start) {
+        state[id] = enemyState;
+        animStart[id] = start;
+        // An enemy whose animation already ran this tick keeps running, the others resume at the start
+        animTime[id] = Math.max(animTime[id], start);
+    }
+
+    /**
+     * Reduces an enemy's health by the specified damage amount.
+     *
+     * @param id the id of the enemy
+     * @param damage the amount of damage
+     */
+    public void hurt(int id, int damage) {
+        health[id] -= damage;
+        if (health[id] <= 0) {
+            changeState(id, DIE);
+        } else {
+            changeState(id, HURT);
+        }
+    }
+
+    /**
+     * Puts an enemy back at its spawn position with full health.
+     *
+     * @param id the id of the enemy
+     */
+    public void reset(int id) {
+        x[id] = spawnX[id];
+        y[id] = spawnY[id];
+        prevX[id] = spawnX[id];
+        prevY[id] = spawnY[id];
+        firstUpdate[id] = true;
+        health[id] = maxHealth[id];
+        changeState(id, IDLE);
+        if (!active[id]) {
+            active[id] = true;
+            activeCount++;
+        }
+        airSpeed[id] = 0;
+    }
+
+    /**
+     * Resets all enemies.
+     */
+    public void resetAll() {
+        for (int id = 0; id < size; id++) {
+            reset(id);
+        }
+    }
+
+    /**
+     * Checks if a box overlaps the hitbox of an enemy, edges included.
+     *
+     * @param id the id of the enemy
+     * @param box the box to test
+     * @return true if they overlap, false otherwise
+     */
+    public boolean intersects(int id, AABB box) {
+        return box.intersects(x[id], y[id], width[id], height[id]);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int getActiveCount() {
+        return activeCount;
+    }
+
+    public int getType(int id) {
+        return type[id];
+    }
+
+    public double getX(int id) {
+        return x[id];
+    }
+
+    public double getY(int id) {
+        return y[id];
+    }
+
+    public double getWidth(int id) {
+        return width[id];
+    }
+
+    public double getHeight(int id) {
+        return height[id];
+    }
+
+    public double getPrevX(int id) {
+        return prevX[id];
+    }
+
+    public double getPrevY(int id) {
+        return prevY[id];
+    }
+
+    public double getAttackX(int id) {
+        return attackX[id];
+    }
+
+    public double getAttackY(int id) {
+        return attackY[id];
+    }
+
+    public int getState(int id) {
+        return state[id];
+    }
+
+    /**
+     * Returns the frame of an enemy's animation at the current time of the clock.
+     *
+     * @param id the id of the enemy
+     * @return the frame index
+     */
+    public int getAnimIndex(int id) {
+        return clock.getLoopFrame(getAnimStart(id), types[type[id]].getSpriteAmount(state[id]));
+    }
+
+    public AnimationClock getClock() {
+        return clock;
+    }
+
+    /**
+     * Sets the clock the animations are played against, usually the one shared by the whole game.
+     *
+     * @param clock the clock
+     */
+    public void setClock(AnimationClock clock) {
+        this.clock = clock;
+    }
+
+    public int getHealth(int id) {
+        return health[id];
+    }
+
+    public int getMaxHealth(int id) {
+        return maxHealth[id];
+    }
+
+    public int getWalkDirection(int id) {
+        return walkDirection[id];
+    }
+
+    public void setWalkDirection(int id, int walkDirection) {
+        this.walkDirection[id] = walkDirection;
+    }
+
+    public boolean isActive(int id) {
+        return active[id];
+    }
+
+    public boolean isInAir(int id) {
+        return inAir[id];
+    }
+}
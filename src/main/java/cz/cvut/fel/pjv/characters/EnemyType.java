@@ -0,0 +1,150 @@
+package cz.cvut.fel.pjv.characters;
+
+import cz.cvut.fel.pjv.main.Game;
+
+/**
+ * Describes one type of enemy: its sprite sheet, animations, hitbox, health and damage.
+ * Types are loaded from the enemy descriptor by EnemyRegistry and never change afterwards.
+ * Sizes and offsets are given in sprite sheet pixels; the getters of drawn sizes return them scaled.
+ */
+public class EnemyType {
+    /**
+     * The names of the enemy states in the descriptor, indexed by the state constant.
+     */
+    static final String[] STATE_NAMES = {"idle", "die", "hurt", "attack", "run"};
+
+    private final int id;
+    private final String name;
+    private final String sprite;
+    private final int frameWidth, frameHeight;
+    private final int colorKey;
+    private final int hitBoxWidth, hitBoxHeight;
+    private final int drawOffsetX, drawOffsetY;
+    private final int attackOffsetY;
+    private final int maxHealth;
+    private final int damage;
+    private final int[] rows;
+    private final int[] frames;
+
+    /**
+     * Constructs an EnemyType.
+     *
+     * @param id the id of the type
+     * @param name the name of the type in the descriptor
+     * @param sprite the file name of the sprite sheet
+     * @param frameWidth the width of one frame in the sheet
+     * @param frameHeight the height of one frame in the sheet
+     * @param colorKey the green value of a level pixel that spawns this type
+     * @param hitBoxWidth the width of the hitbox
+     * @param hitBoxHeight the height of the hitbox
+     * @param drawOffsetX the x-coordinate of the hitbox inside a frame
+     * @param drawOffsetY the y-coordinate of the hitbox inside a frame
+     * @param attackOffsetY the vertical offset of the attack box from the hitbox
+     * @param maxHealth the maximum health
+     * @param damage the damage of one attack
+     * @param rows the sheet row of the animation of each state
+     * @param frames the number of frames of the animation of each state
+     */
+    public EnemyType(int id, String name, String sprite, int frameWidth, int frameHeight, int colorKey,
+                     int hitBoxWidth, int hitBoxHeight, int drawOffsetX, int drawOffsetY, int attackOffsetY,
+                     int maxHealth, int damage, int[] rows, int[] frames) {
+        this.id = id;
+        this.name = name;
+        this.sprite = sprite;
+        this.frameWidth = frameWidth;
+        this.frameHeight = frameHeight;
+        this.colorKey = colorKey;
+        this.hitBoxWidth = hitBoxWidth;
+        this.hitBoxHeight = hitBoxHeight;
+        this.drawOffsetX = drawOffsetX;
+        this.drawOffsetY = drawOffsetY;
+        this.attackOffsetY = attackOffsetY;
+        this.maxHealth = maxHealth;
+        this.damage = damage;
+        this.rows = rows.clone();
+        this.frames = frames.clone();
+    }
+
+    /**
+     * Returns the number of frames of the animation of a state.
+     *
+     * @param state the enemy state
+     * @return the number of frames, or 0 for an unknown state
+     */
+    public int getSpriteAmount(int state) {
+        if (state < 0 || state >= frames.length) {
+            return 0;
+        }
+        return frames[state];
+    }
+
+    /**
+     * Returns the sprite sheet row of the animation of a state.
+     *
+     * @param state the enemy state
+     * @return the row in the sprite sheet
+     */
+    public int getRow(int state) {
+        return rows[state];
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getSprite() {
+        return sprite;
+    }
+
+    public int getFrameWidth() {
+        return frameWidth;
+    }
+
+    public int getFrameHeight() {
+        return frameHeight;
+    }
+
+    public int getColorKey() {
+        return colorKey;
+    }
+
+    public int getHitBoxWidth() {
+        return hitBoxWidth;
+    }
+
+    public int getHitBoxHeight() {
+        return hitBoxHeight;
+    }
+
+    public int getMaxHealth() {
+        return maxHealth;
+    }
+
+    public int getDamage() {
+        return damage;
+    }
+
+    public int getDrawWidth() {
+        return (int) (frameWidth * Game.SCALE);
+    }
+
+    public int getDrawHeight() {
+        return (int) (frameHeight * Game.SCALE);
+    }
+
+    public int getDrawOffsetX() {
+        return (int) (drawOffsetX * Game.SCALE);
+    }
+
+    public int getDrawOffsetY() {
+        return (int) (drawOffsetY * Game.SCALE);
+    }
+
+    public int getAttackOffsetY() {
+        return (int) (attackOffsetY * Game.SCALE);
+    }
+}
@@ -1,16 +1,19 @@
 package cz.cvut.fel.pjv.characters;
 
 import cz.cvut.fel.pjv.audio.AudioPlayer;
+import cz.cvut.fel.pjv.effects.ParticleSystem;
 import cz.cvut.fel.pjv.gamestates.Playing;
+import cz.cvut.fel.pjv.levels.TileMap;
 import cz.cvut.fel.pjv.main.Game;
+import cz.cvut.fel.pjv.render.RenderQueue;
+import cz.cvut.fel.pjv.render.RenderSnapshot;
+import cz.cvut.fel.pjv.render.SpriteRegion;
+import cz.cvut.fel.pjv.utils.AABB;
 import cz.cvut.fel.pjv.utils.LoadSave;
 
 import javafx.geometry.Point2D;
 import javafx.scene.canvas.GraphicsContext;
-import javafx.scene.image.Image;
-import javafx.scene.image.WritableImage;
 import javafx.scene.paint.Color;
-import javafx.scene.shape.Rectangle;
 
 import static cz.cvut.fel.pjv.utils.AdditionalMethods.*;
 import static cz.cvut.fel.pjv.utils.Constants.PlayerConstants.*;
@@ -21,17 +24,17 @@ import static cz.cvut.fel.pjv.utils.Constants.*;
  */
 public class Player extends Character {
     private Playing playing;
-    private Image[][] animations;
+    private SpriteRegion[][] animations;
     private boolean moving = false, attacking = false;
     private boolean left, right, jump;
-    private int[][] levelData;
+    private TileMap tileMap;
     private double xOffset = 9 * Game.SCALE, yOffset = 14 * Game.SCALE;
     private boolean attackChecked = false;
 
     private double jumpSpeed = -2.25d * Game.SCALE;
     private double fallSpeedAfterCollision = 0.5d * Game.SCALE;
 
-    private Image healtBarImage;
+    private SpriteRegion healtBarImage;
     private int statusBarWidth = (int) (200 * Game.SCALE);
     private int statusBarHeight = (int) (50 * Game.SCALE);
     private int statusBarX = (int) (1 * Game.SCALE);
@@ -42,7 +45,6 @@ public class Player extends Character {
     private int healthStartY = (int) (17 * Game.SCALE);
     private int healthWidth = healthBarWidth;
 
-    private int flipX = 0;
     private int flipW = 1;
 
     /**
@@ -57,11 +59,16 @@ public class Player extends Character {
     public Player(double x, double y, int width, int height, Playing playing) {
         super(x, y, width, height);
         this.playing = playing;
+        if (playing != null) {
+            this.clock = playing.getAnimationClock();
+        }
         this.state = IDLE;
         this.maxHealth = 100;
         this.currentHealth = maxHealth;
         this.walkSpeed = 1.0d * Game.SCALE;
-        loadAnimations();
+        if (playing == null || !playing.isHeadless()) {
+            loadAnimations();
+        }
         initHitBox(20, 33);
         initAttackBox();
     }
@@ -76,33 +83,33 @@ public class Player extends Character {
         this.y = spawn.getY();
         hitBox.setX(x);
         hitBox.setY(y);
+        storePreviousPosition();
     }
 
     /**
      * Initializes the attack box.
      */
     private void initAttackBox() {
-        attackBox = new Rectangle(x, y, (int) (20 * Game.SCALE), (int) (20 * Game.SCALE));
+        attackBox = new AABB(x, y, (int) (20 * Game.SCALE), (int) (20 * Game.SCALE));
     }
 
     /**
      * Updates the state of the player.
      */
     public void update() {
+        storePreviousPosition();
         updateHealth();
         if (currentHealth <= 0) {
             if (state != DEATH) {
                 state = DEATH;
-                animTick = 0;
-                animIndex = 0;
+                // The death animation starts with the next tick, as this tick has no animation step
+                resetAnimation(clock.getStepTime());
                 playing.setPlayerDying(true);
                 playing.getGame().getAudioPlayer().playEffect(AudioPlayer.DIE);
-            } else if (animIndex == GetSpriteAmount(DEATH) - 1 && animTick >= ANIMATION_SPEED - 1) {
+            } else if (clock.isFinished(animStart, GetSpriteAmount(DEATH))) {
                 playing.setGameOver(true);
                 playing.getGame().getAudioPlayer().stopSong();
                 playing.getGame().getAudioPlayer().playEffect(AudioPlayer.GAMEOVER);
-            } else {
-                updateAnimation();
             }
             return;
         }
@@ -137,7 +144,7 @@ public class Player extends Character {
      * Checks if the player has hit anything with their attack.
      */
     private void checkAttack() {
-        if (attackChecked || animIndex != 3) {
+        if (attackChecked || getAnimIndex() != 3) {
             return;
         }
         attackChecked = true;
@@ -166,25 +173,39 @@ public class Player extends Character {
     }
 
     /**
-     * Renders the player and the UI elements.
+     * Writes the player's sprite and health bar state into a render snapshot.
+     *
+     * @param snapshot the snapshot to fill
+     */
+    public void writeSnapshot(RenderSnapshot snapshot) {
+        snapshot.setPlayer(prevHitBoxX - xOffset, prevHitBoxY - yOffset, hitBox.getX() - xOffset, hitBox.getY() - yOffset, state, getAnimIndex(), flipW < 0, healthWidth);
+    }
+
+    /**
+     * Submits the player sprite of a render snapshot to the render queue.
      *
-     * @param gc          the graphics context to draw on
-     * @param levelOffset the offset for level scrolling
+     * @param queue    the render queue to submit to
+     * @param snapshot the snapshot to draw
+     * @param alpha    the fraction of the tick elapsed since the snapshot, used to blend positions
      */
-    public void render(GraphicsContext gc, int levelOffset) {
-        gc.drawImage(animations[state][animIndex], (hitBox.getX() - xOffset) - levelOffset + flipX, hitBox.getY() - yOffset, width * flipW, height);
+    public void render(RenderQueue queue, RenderSnapshot snapshot, double alpha) {
+        int flipX = snapshot.isPlayerFlipped() ? width : 0;
+        int flipW = snapshot.isPlayerFlipped() ? -1 : 1;
+        int levelOffset = snapshot.getXLevelOffset(alpha);
+        queue.submit(RenderQueue.PLAYER, animations[snapshot.getPlayerState()][snapshot.getPlayerAnimIndex()], snapshot.getPlayerX(alpha) - levelOffset + flipX, snapshot.getPlayerY(alpha), width * flipW, height);
 //        drawHitBox(gc, levelOffset);
 //        drawAttackBox(gc, levelOffset);
-        drawIU(gc);
     }
 
     /**
-     * Draws the UI elements such as the health bar.
+     * Draws the UI elements such as the health bar. They are drawn on the HUD layer, which is only redrawn when they change.
      *
-     * @param gc the graphics context to draw on
+     * @param gc       the graphics context to draw on
+     * @param snapshot the snapshot to draw
      */
-    private void drawIU(GraphicsContext gc) {
-        gc.drawImage(healtBarImage, statusBarX, statusBarY, statusBarWidth, statusBarHeight);
+    public void drawUI(GraphicsContext gc, RenderSnapshot snapshot) {
+        int healthWidth = snapshot.getPlayerHealthWidth();
+        healtBarImage.draw(gc, statusBarX, statusBarY, statusBarWidth, statusBarHeight);
         gc.setFill(Color.rgb(255, 40, 77));
         gc.fillRect(healthStartX + statusBarX, healthStartY + statusBarY, healthWidth, healthBarHeight);
     }
@@ -193,28 +214,19 @@ public class Player extends Character {
      * Loads the player animations from sprite sheets.
      */
     private void loadAnimations() {
-        Image image = LoadSave.getSpriteAtlas(LoadSave.playerAtlas);
-        animations = new Image[12][8];
-        int width = (int) image.getWidth() / 8;
-        int height = (int) image.getHeight() / 12;
-
-        for (int j = 0; j < 12; j++) { // j - height
-            for (int i = 0; i < 8; i++) { // i - width
-                animations[j][i] = new WritableImage(image.getPixelReader(), i * width, j * height, width, height);
-            }
-        }
+        animations = LoadSave.getFrames(LoadSave.playerAtlas);
 
-        healtBarImage = LoadSave.getSpriteAtlas(LoadSave.heathBar);
+        healtBarImage = LoadSave.getSprite(LoadSave.heathBar);
     }
 
     /**
      * Loads the level data for collision detection.
      *
-     * @param levelData the 2D array of the level layout
+     * @param tileMap the tiles of the level
      */
-    public void loadLevelData(int[][] levelData) {
-        this.levelData = levelData;
-        if (!isEntityOnFloor(hitBox, levelData)) {
+    public void loadLevelData(TileMap tileMap) {
+        this.tileMap = tileMap;
+        if (!isEntityOnFloor(hitBox, tileMap)) {
             inAir = true;
         }
     }
@@ -239,24 +251,22 @@ public class Player extends Character {
 
         if (left) {
             xSpeed -= walkSpeed;
-            flipX = width;
             flipW = -1;
         }
         if (right) {
             xSpeed += walkSpeed;
-            flipX = 0;
             flipW = 1;
         }
 
         if (!inAir) {
-            if (!isEntityOnFloor(hitBox, levelData)) {
+            if (!isEntityOnFloor(hitBox, tileMap)) {
                 inAir = true;
             }
         }
 
         if (inAir) {
-            if (canMoveHere(hitBox.getX(), hitBox.getY() + airSpeed, hitBox.getWidth(), hitBox.getHeight(), levelData)) {
-                hitBox.setY(hitBox.getY() + airSpeed);
+            if (canMoveHere(hitBox.getX(), hitBox.getY() + airSpeed, hitBox.getWidth(), hitBox.getHeight(), tileMap)) {
+                hitBox.translate(0, airSpeed);
                 airSpeed += GRAVITY;
                 updateXPosition(xSpeed);
             } else {
@@ -300,8 +310,8 @@ public class Player extends Character {
      * @param xSpeed the speed to move horizontally
      */
     private void updateXPosition(double xSpeed) {
-        if (canMoveHere(hitBox.getX() + xSpeed, hitBox.getY(), hitBox.getWidth(), hitBox.getHeight(), levelData)) {
-            hitBox.setX(hitBox.getX() + xSpeed);
+        if (canMoveHere(hitBox.getX() + xSpeed, hitBox.getY(), hitBox.getWidth(), hitBox.getHeight(), tileMap)) {
+            hitBox.translate(xSpeed, 0);
         } else {
             hitBox.setX(getEntityPosNextToWall(hitBox, xSpeed));
         }
@@ -325,6 +335,9 @@ public class Player extends Character {
      * Kills the player by setting their health to 0.
      */
     public void kill() {
+        if (currentHealth > 0 && playing != null) {
+            playing.getParticles().emit(ParticleSystem.DEATH, hitBox.getX() + hitBox.getWidth() / 2, hitBox.getY() + hitBox.getHeight() / 2, 40);
+        }
         currentHealth = 0;
     }
 
@@ -353,32 +366,42 @@ public class Player extends Character {
         }
 
         if (startAnim != state) {
-            resetAnimation();
+            resetAnimation(clock.getStepTime());
         }
     }
 
     /**
-     * Resets the animation tick and index.
+     * Restarts the animation.
+     *
+     * @param start the time the animation starts at: the clock's time, or its step time after the animation step of a tick
      */
-    private void resetAnimation() {
-        animTick = 0;
-        animIndex = 0;
+    private void resetAnimation(long start) {
+        animStart = start;
     }
 
     /**
-     * Updates the animation tick and index.
+     * The animation step of the player: ends the attack when the current animation finishes a cycle,
+     * which for the attack is when it has played once.
      */
     private void updateAnimation() {
-        animTick++;
-        if (animTick >= ANIMATION_SPEED) {
-            animTick = 0;
-            animIndex++;
-            if (animIndex >= GetSpriteAmount(state)) {
-                animIndex = 0;
-                attacking = false;
-                attackChecked = false;
-            }
+        if (clock.hasLooped(animStart, GetSpriteAmount(state))) {
+            attacking = false;
+            attackChecked = false;
+        }
+    }
+
+    /**
+     * Returns the frame of the player's animation at the current time of the clock.
+     *
+     * @return the frame index
+     */
+    @Override
+    public int getAnimIndex() {
+        if (state == DEATH) {
+            // The game is over once the death animation has played, and its last frame stays shown
+            return Math.min(clock.getFrame(animStart), GetSpriteAmount(DEATH) - 1);
         }
+        return clock.getLoopFrame(animStart, GetSpriteAmount(state));
     }
 
     /**
@@ -400,11 +423,12 @@ public class Player extends Character {
         jump = false;
         state = IDLE;
         currentHealth = maxHealth;
-        resetAnimation();
+        resetAnimation(clock.getTime());
         hitBox.setX(x);
         hitBox.setY(y);
+        storePreviousPosition();
 
-        if (!isEntityOnFloor(hitBox, levelData)) {
+        if (!isEntityOnFloor(hitBox, tileMap)) {
             inAir = true;
         }
     }
@@ -0,0 +1,171 @@
+package cz.cvut.fel.pjv.effects;
+
+import cz.cvut.fel.pjv.main.Game;
+import cz.cvut.fel.pjv.render.ParticleList;
+import cz.cvut.fel.pjv.render.RenderSnapshot;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.paint.Color;
+
+/**
+ * Short-lived visual effects: sparks when an enemy is hit, dust when it dies, splinters of broken containers
+ * and sparkles of collected pickups. Particles do not interact with anything and never change the game.
+ * They are kept in parallel primitive arrays of a fixed capacity; a particle that expires is replaced
+ * by the last one, so the live particles are always the first count() entries and nothing is allocated
+ * after construction. Bursts that do not fit are cut short.
+ */
+public class ParticleSystem {
+    public static final int DEFAULT_CAPACITY = 32768;
+
+    public static final int HIT = 0;
+    public static final int DEATH = 1;
+    public static final int BREAK = 2;
+    public static final int PICKUP = 3;
+    public static final int KIND_COUNT = 4;
+
+    // Per kind: color, gravity, initial speed, lifetime in ticks and size, all in unscaled pixels
+    private static final Color[] COLORS = {Color.rgb(255, 60, 60), Color.rgb(190, 190, 190), Color.rgb(150, 100, 50), Color.rgb(255, 230, 80)};
+    private static final double[] GRAVITY = {0.02, -0.005, 0.03, -0.01};
+    private static final double[] SPEED = {1.2, 0.6, 1.5, 0.8};
+    private static final int[] LIFETIME = {60, 120, 90, 80};
+    private static final double[] SIZE = {2, 3, 2.5, 2};
+
+    private final int capacity;
+    private int count;
+    private final int[] kind;
+    private final double[] x, y, xSpeed, ySpeed;
+    private final int[] life;
+    private long seed = 0x2545F4914F6CDD1DL;
+
+    /**
+     * Constructs an empty ParticleSystem.
+     *
+     * @param capacity the maximum number of live particles
+     */
+    public ParticleSystem(int capacity) {
+        this.capacity = Math.max(1, capacity);
+        kind = new int[this.capacity];
+        x = new double[this.capacity];
+        y = new double[this.capacity];
+        xSpeed = new double[this.capacity];
+        ySpeed = new double[this.capacity];
+        life = new int[this.capacity];
+    }
+
+    /**
+     * Emits a burst of particles flying out of a point in random directions.
+     *
+     * @param particleKind the kind of the particles
+     * @param x the x-coordinate of the point in the level
+     * @param y the y-coordinate of the point in the level
+     * @param amount the number of particles
+     */
+    public void emit(int particleKind, double x, double y, int amount) {
+        double speed = SPEED[particleKind] * Game.SCALE;
+        for (int i = 0; i < amount && count < capacity; i++) {
+            double angle = nextDouble() * 2 * Math.PI;
+            double velocity = speed * (0.3 + 0.7 * nextDouble());
+            int id = count++;
+            kind[id] = particleKind;
+            this.x[id] = x;
+            this.y[id] = y;
+            xSpeed[id] = Math.cos(angle) * velocity;
+            ySpeed[id] = Math.sin(angle) * velocity;
+            life[id] = LIFETIME[particleKind] / 2 + (int) (nextDouble() * LIFETIME[particleKind] / 2);
+        }
+    }
+
+    /**
+     * Moves all particles by one tick and removes the expired ones.
+     */
+    public void update() {
+        for (int i = 0; i < count; i++) {
+            if (--life[i] <= 0) {
+                remove(i--);
+                continue;
+            }
+            ySpeed[i] += GRAVITY[kind[i]] * Game.SCALE;
+            x[i] += xSpeed[i];
+            y[i] += ySpeed[i];
+        }
+    }
+
+    /**
+     * Moves the last particle into the slot of an expired one.
+     */
+    private void remove(int id) {
+        int last = --count;
+        kind[id] = kind[last];
+        x[id] = x[last];
+        y[id] = y[last];
+        xSpeed[id] = xSpeed[last];
+        ySpeed[id] = ySpeed[last];
+        life[id] = life[last];
+    }
+
+    /**
+     * Removes all particles, for when a level is restarted or changed.
+     */
+    public void clear() {
+        count = 0;
+    }
+
+    /**
+     * Copies the particles into a render snapshot, grouped by kind so each kind is drawn in one pass.
+     *
+     * @param snapshot the snapshot to fill
+     */
+    public void writeSnapshot(RenderSnapshot snapshot) {
+        ParticleList particles = snapshot.getParticles();
+        particles.begin(count);
+        for (int i = 0; i < count; i++) {
+            particles.count(kind[i]);
+        }
+        particles.layout();
+        for (int i = 0; i < count; i++) {
+            double size = SIZE[kind[i]] * Game.SCALE * Math.min(1, 2.0 * life[i] / LIFETIME[kind[i]]);
+            particles.add(kind[i], x[i], y[i], xSpeed[i], ySpeed[i], size);
+        }
+    }
+
+    /**
+     * Draws the particles of a render snapshot, one batch per kind with a single fill color.
+     *
+     * @param gc the graphics context to draw on
+     * @param snapshot the snapshot to draw
+     * @param alpha the fraction of the tick elapsed since the snapshot, used to blend positions
+     */
+    public static void draw(GraphicsContext gc, RenderSnapshot snapshot, double alpha) {
+        ParticleList particles = snapshot.getParticles();
+        int xLevelOffset = snapshot.getXLevelOffset(alpha);
+        for (int k = 0; k < KIND_COUNT; k++) {
+            int from = particles.getStart(k), to = particles.getEnd(k);
+            if (from == to) {
+                continue;
+            }
+            gc.setFill(COLORS[k]);
+            for (int i = from; i < to; i++) {
+                double size = particles.getSize(i);
+                gc.fillRect(particles.getX(i, alpha) - xLevelOffset - size / 2, particles.getY(i, alpha) - size / 2, size, size);
+            }
+        }
+    }
+
+    /**
+     * Returns the next number of a xorshift generator in [0, 1). Particles only need to look random,
+     * and the generator keeps emitting free of allocation and independent of the game's randomness.
+     */
+    private double nextDouble() {
+        seed ^= seed << 13;
+        seed ^= seed >>> 7;
+        seed ^= seed << 17;
+        return (seed >>> 11) * 0x1.0p-53;
+    }
+
+    public int count() {
+        return count;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+}
@@ -2,8 +2,11 @@ package cz.cvut.fel.pjv.gamestates;
 
 import cz.cvut.fel.pjv.gui.AudioOptions;
 import cz.cvut.fel.pjv.gui.PauseButton;
+import cz.cvut.fel.pjv.gui.RetainedUI;
+import cz.cvut.fel.pjv.gui.UIElement;
 import cz.cvut.fel.pjv.gui.URMButtons;
 import cz.cvut.fel.pjv.main.Game;
+import cz.cvut.fel.pjv.render.CanvasLayers;
 import cz.cvut.fel.pjv.utils.LoadSave;
 
 import javafx.scene.canvas.GraphicsContext;
@@ -11,6 +14,8 @@ import javafx.scene.image.Image;
 import javafx.scene.input.KeyEvent;
 import javafx.scene.input.MouseEvent;
 
+import java.util.Arrays;
+
 import static cz.cvut.fel.pjv.utils.Constants.UI.URMButtons.*;
 
 /**
@@ -21,6 +26,7 @@ public class GameOptions extends State implements StateMethods {
     private AudioOptions audioOptions;
     private Image background;
     private URMButtons menuButton;
+    private RetainedUI ui;
 
     /**
      * Constructs the GameOptions state with the given game instance.
@@ -32,6 +38,10 @@ public class GameOptions extends State implements StateMethods {
         background = LoadSave.getSpriteAtlas(LoadSave.optionsBackground);
         loadButtons();
         audioOptions = game.getAudioOptions();
+        UIElement[] audioElements = audioOptions.getElements();
+        UIElement[] elements = Arrays.copyOf(audioElements, audioElements.length + 1);
+        elements[audioElements.length] = menuButton;
+        ui = new RetainedUI(g -> g.drawImage(background, 0, 0, Game.GAME_WIDTH, Game.GAME_HEIGHT), elements);
     }
 
     /**
@@ -60,9 +70,17 @@ public class GameOptions extends State implements StateMethods {
      */
     @Override
     public void draw(GraphicsContext g) {
-        g.drawImage(background, 0, 0, Game.GAME_WIDTH, Game.GAME_HEIGHT);
-        audioOptions.draw(g);
-        menuButton.draw(g);
+        ui.drawAll(g);
+    }
+
+    /**
+     * Draws the options on a canvas layer, redrawing only the buttons whose state changed.
+     *
+     * @param layers the canvas layers
+     * @param layer the layer showing the options
+     */
+    public void draw(CanvasLayers layers, int layer) {
+        ui.draw(layers, layer);
     }
 
     /**
@@ -2,7 +2,9 @@ package cz.cvut.fel.pjv.gamestates;
 
 import cz.cvut.fel.pjv.audio.AudioPlayer;
 import cz.cvut.fel.pjv.gui.MenuButton;
+import cz.cvut.fel.pjv.gui.RetainedUI;
 import cz.cvut.fel.pjv.main.Game;
+import cz.cvut.fel.pjv.render.CanvasLayers;
 import cz.cvut.fel.pjv.utils.LoadSave;
 import javafx.scene.canvas.GraphicsContext;
 import javafx.scene.image.Image;
@@ -18,6 +20,7 @@ public class Menu extends State implements StateMethods {
     private MenuButton[] menuButtons = new MenuButton[3];
     private Image menuBackground;
     private Game game;
+    private final RetainedUI ui;
 
     /**
      * Constructs a new Menu instance.
@@ -29,6 +32,7 @@ public class Menu extends State implements StateMethods {
         this.game = game;
         loadButtons();
         menuBackground = LoadSave.getSpriteAtlas(LoadSave.menuBackgroud);
+        ui = new RetainedUI(this::drawBackground, menuButtons);
     }
 
     /**
@@ -49,11 +53,27 @@ public class Menu extends State implements StateMethods {
 
     @Override
     public void draw(GraphicsContext g) {
+        ui.drawAll(g);
+    }
+
+    /**
+     * Draws the menu on a canvas layer, redrawing only the buttons whose state changed.
+     *
+     * @param layers the canvas layers
+     * @param layer the layer showing the menu
+     */
+    public void draw(CanvasLayers layers, int layer) {
+        ui.draw(layers, layer);
+    }
+
+    /**
+     * Draws the background of the menu.
+     *
+     * @param g the GraphicsContext to draw on
+     */
+    private void drawBackground(GraphicsContext g) {
         g.clearRect(0, 0, Game.GAME_WIDTH, Game.GAME_HEIGHT);
         g.drawImage(menuBackground, 0, 0, Game.GAME_WIDTH, Game.GAME_HEIGHT);
-        for (MenuButton button : menuButtons) {
-            button.draw(g);
-        }
     }
 
     @Override
@@ -2,13 +2,22 @@ package cz.cvut.fel.pjv.gamestates;
 
 import cz.cvut.fel.pjv.characters.EnemyManager;
 import cz.cvut.fel.pjv.characters.Player;
+import cz.cvut.fel.pjv.effects.ParticleSystem;
 import cz.cvut.fel.pjv.gui.GameCompletedOverlay;
 import cz.cvut.fel.pjv.gui.GameOverOverlay;
 import cz.cvut.fel.pjv.gui.LevelCompletedOverlay;
 import cz.cvut.fel.pjv.gui.PauseOverlay;
+import cz.cvut.fel.pjv.levels.Level;
 import cz.cvut.fel.pjv.levels.LevelManager;
 import cz.cvut.fel.pjv.main.Game;
 import cz.cvut.fel.pjv.objects.ObjectManager;
+import cz.cvut.fel.pjv.render.CanvasLayers;
+import cz.cvut.fel.pjv.render.RenderQueue;
+import cz.cvut.fel.pjv.render.RenderSnapshot;
+import cz.cvut.fel.pjv.render.RenderSnapshotBuffer;
+import cz.cvut.fel.pjv.utils.AABB;
+import cz.cvut.fel.pjv.utils.ActivityRegion;
+import cz.cvut.fel.pjv.utils.AnimationClock;
 import cz.cvut.fel.pjv.utils.LoadSave;
 
 import javafx.scene.canvas.GraphicsContext;
@@ -16,12 +25,19 @@ import javafx.scene.image.Image;
 import javafx.scene.input.KeyEvent;
 import javafx.scene.input.MouseEvent;
 import javafx.scene.paint.Color;
-import javafx.scene.shape.Rectangle;
+import javafx.scene.text.Font;
+import javafx.scene.text.TextAlignment;
 
 /**
  * Represents the playing state of the game.
  */
 public class Playing extends State implements StateMethods {
+    private static final int NO_OVERLAY = 0;
+    private static final int PAUSE_OVERLAY = 1;
+    private static final int GAME_OVER_OVERLAY = 2;
+    private static final int LEVEL_COMPLETED_OVERLAY = 3;
+    private static final int GAME_COMPLETED_OVERLAY = 4;
+
     private Player player;
     private LevelManager levelManager;
     private EnemyManager enemyManager;
@@ -36,12 +52,27 @@ public class Playing extends State implements StateMethods {
     private boolean playerDying = false;
     private boolean gameCompleted = false;
 
-    private int xLevelOffset;
+    private int prevXLevelOffset, xLevelOffset;
+    private long lastStepTime;
+    // Counts the ticks where the level moved or was reset, see RenderSnapshot.setStep
+    private int worldStep;
     private int leftBorder = (int) (0.2 * Game.GAME_WIDTH);
     private int rightBorder = (int) (0.8 * Game.GAME_WIDTH);
     private int maxLevelOffset;
+    private final ActivityRegion activityRegion = new ActivityRegion();
+    private final AnimationClock animationClock = new AnimationClock();
+    private final ParticleSystem particles = new ParticleSystem(ParticleSystem.DEFAULT_CAPACITY);
 
     private Image background;
+    private final RenderSnapshotBuffer snapshots = new RenderSnapshotBuffer();
+    private final RenderQueue renderQueue = new RenderQueue(256);
+    // What the level, entity and HUD layers currently show, so they are only redrawn when it changes
+    private Level drawnLevel;
+    private int drawnLevelOffset = -1;
+    private int drawnStep = -1, drawnEntitiesOffset = -1;
+    private double drawnAlpha;
+    private int drawnOverlay = -1;
+    private int drawnHealthWidth = -1, drawnEnemies = -1, drawnStars = -1;
 
     /**
      * Constructs a new Playing state.
@@ -51,10 +82,13 @@ public class Playing extends State implements StateMethods {
     public Playing(Game game) {
         super(game);
         initClasses();
-        background = LoadSave.getSpriteAtlas(LoadSave.playingBackground);
+        if (!isHeadless()) {
+            background = LoadSave.getSpriteAtlas(LoadSave.playingBackground);
+        }
 
         calculateLevelOffset();
         loadStartLevel();
+        publishSnapshot();
     }
 
     /**
@@ -66,6 +100,17 @@ public class Playing extends State implements StateMethods {
         player.setSpawn(levelManager.getCurrentLevel().getPlayerSpawn());
     }
 
+    /**
+     * Loads the level with the given index.
+     *
+     * @param levelIndex the index of the level
+     */
+    public void loadLevel(int levelIndex) {
+        resetAll();
+        levelManager.loadLevel(levelIndex);
+        player.setSpawn(levelManager.getCurrentLevel().getPlayerSpawn());
+    }
+
     /**
      * Loads the start level.
      */
@@ -88,13 +133,15 @@ public class Playing extends State implements StateMethods {
         levelManager = new LevelManager(game);
         enemyManager = new EnemyManager(this);
         player = new Player(200, 200, (int) (48 * Game.SCALE), (int) (48 * Game.SCALE), this);
-        player.loadLevelData(levelManager.getCurrentLevel().getLevelData());
+        player.loadLevelData(levelManager.getCurrentLevel().getTileMap());
         player.setSpawn(levelManager.getCurrentLevel().getPlayerSpawn());
-        pauseOverlay = new PauseOverlay(this);
-        gameOverOverlay = new GameOverOverlay(this);
-        levelCompletedOverlay = new LevelCompletedOverlay(this);
         objectManager = new ObjectManager(this);
-        gameCompletedOverlay = new GameCompletedOverlay(this);
+        if (!isHeadless()) {
+            pauseOverlay = new PauseOverlay(this);
+            gameOverOverlay = new GameOverOverlay(this);
+            levelCompletedOverlay = new LevelCompletedOverlay(this);
+            gameCompletedOverlay = new GameCompletedOverlay(this);
+        }
     }
 
     /**
@@ -102,30 +149,85 @@ public class Playing extends State implements StateMethods {
      */
     @Override
     public void update() {
-        if (paused) {
-            pauseOverlay.update();
-        } else if (levelCompleted) {
-            levelCompletedOverlay.update();
-        } else if (gameOver) {
-            gameOverOverlay.update();
+        prevXLevelOffset = xLevelOffset;
+        if (paused || levelCompleted || gameOver) {
+            updateOverlay();
         } else if (playerDying) {
+            setAnimationTickLength();
             player.update();
+            particles.update();
+            animationClock.tick();
+            worldStep++;
         } else if (gameCompleted) {
-            gameOverOverlay.update();
+            updateOverlay();
         } else {
-            objectManager.update();
+            setAnimationTickLength();
+            activityRegion.update(xLevelOffset);
+            objectManager.update(activityRegion);
             player.update();
-            enemyManager.update(levelManager.getCurrentLevel().getLevelData(), player);
+            enemyManager.update(levelManager.getCurrentLevel().getTileMap(), player, activityRegion);
+            particles.update();
             checkCloseToBorder();
             checkForActive();
+            animationClock.tick();
+            lastStepTime = System.nanoTime();
+            worldStep++;
+        }
+        publishSnapshot();
+    }
+
+    /**
+     * Sets the length of the tick the animation clock moves by after the entities were updated
+     * to the current update rate, so animations play at the same speed whatever the update rate is.
+     */
+    private void setAnimationTickLength() {
+        animationClock.setTickNanos(Math.round(game.getScheduler().getNanosPerUpdate()));
+    }
+
+    /**
+     * Updates the buttons of the overlay shown over the level. A headless game has no overlays.
+     */
+    private void updateOverlay() {
+        if (isHeadless()) {
+            return;
+        }
+        if (paused) {
+            pauseOverlay.update();
+        } else if (levelCompleted) {
+            levelCompletedOverlay.update();
+        } else {
+            gameOverOverlay.update();
+        }
+    }
+
+    /**
+     * Copies the state needed for drawing into the back snapshot and publishes it to the renderer.
+     * The blend timing only moves on ticks where the world stepped, so a paused level is drawn
+     * at its current positions instead of being blended again every tick.
+     */
+    private void publishSnapshot() {
+        if (isHeadless()) {
+            return;
         }
+        RenderSnapshot snapshot = snapshots.getBack();
+        snapshot.clear();
+        snapshot.setXLevelOffset(prevXLevelOffset, xLevelOffset);
+        snapshot.setOverlays(paused, gameOver, levelCompleted, gameCompleted);
+        snapshot.setRemaining(enemyManager.getRemainingEnemies(), objectManager.getRemainingStars());
+        player.writeSnapshot(snapshot);
+        objectManager.writeSnapshot(snapshot);
+        enemyManager.writeSnapshot(snapshot);
+        particles.writeSnapshot(snapshot);
+        snapshot.setStep(worldStep);
+        snapshot.setTiming(lastStepTime, game.getScheduler().getNanosPerUpdate());
+        snapshots.publish();
     }
 
     /**
-     * Checks if there are any active enemies or objects.
+     * Completes the level once no enemies are alive and all stars are collected.
      */
     private void checkForActive() {
-        if (!enemyManager.isAnyActiveEnemy && !objectManager.isAnyActiveStar)
+        if (enemyManager.getRemainingEnemies() == 0 && objectManager.getRemainingStars() == 0)
             if (levelManager.getLevelIndex() + 1 >= levelManager.getAmountOfLevels()) {
                 setGameCompleted(true);
             } else {
@@ -134,32 +236,180 @@ public class Playing extends State implements StateMethods {
     }
 
     /**
-     * Draws the game state.
+     * Draws the latest snapshot published by the simulation on a single canvas, every layer in turn.
      *
      * @param g the graphics context to draw on
      */
     @Override
     public void draw(GraphicsContext g) {
+        RenderSnapshot snapshot = snapshots.getFront();
+        double alpha = snapshot.getAlpha(System.nanoTime());
         g.clearRect(0, 0, Game.GAME_WIDTH, Game.GAME_HEIGHT);
-        g.drawImage(background, 0, 0, Game.GAME_WIDTH, Game.GAME_HEIGHT);
-        levelManager.draw(g, xLevelOffset);
-        player.render(g, xLevelOffset);
-        objectManager.draw(g, xLevelOffset);
-        enemyManager.draw(g, xLevelOffset);
-        if (paused) {
-            Color backColor = new Color(0, 0, 0, 0.7);
-            g.setFill(backColor);
-            g.fillRect(0, 0, Game.GAME_WIDTH, Game.GAME_HEIGHT);
+        drawBackground(g);
+        drawLevel(g, snapshot.getXLevelOffset(alpha));
+        drawEntities(g, snapshot, alpha);
+        drawHud(g, snapshot);
+    }
+
+    /**
+     * Draws the latest snapshot published by the simulation on the canvas layers, redrawing only the layers that changed.
+     * The background is drawn once, the level when the camera moved or the level changed,
+     * and the HUD when the health, the remaining counts or the shown overlay changed; otherwise only the overlay's buttons
+     * whose state changed are redrawn. The entities are drawn when the world stepped or their blended positions moved,
+     * so nothing is redrawn while the game is paused or an overlay is shown.
+     *
+     * @param layers the canvas layers to draw on
+     */
+    public void draw(CanvasLayers layers) {
+        draw(layers, snapshots.getFront());
+    }
+
+    /**
+     * Invalidates the layers whose content differs from what they show and redraws them.
+     * Positions are blended between the snapshot's previous and current tick.
+     *
+     * @param layers the canvas layers to draw on
+     * @param snapshot the snapshot to draw
+     */
+    private void draw(CanvasLayers layers, RenderSnapshot snapshot) {
+        double alpha = snapshot.getAlpha(System.nanoTime());
+        if (layers.isDirty(CanvasLayers.BACKGROUND)) {
+            drawBackground(layers.begin(CanvasLayers.BACKGROUND));
+        }
+
+        int levelOffset = snapshot.getXLevelOffset(alpha);
+        Level level = levelManager.getCurrentLevel();
+        if (levelOffset != drawnLevelOffset || level != drawnLevel) {
+            layers.invalidate(CanvasLayers.LEVEL);
+        }
+        if (layers.isDirty(CanvasLayers.LEVEL)) {
+            drawLevel(layers.begin(CanvasLayers.LEVEL), levelOffset);
+            drawnLevelOffset = levelOffset;
+            drawnLevel = level;
+        }
+
+        // The entities only look different after a new world step or while they are still blended towards it
+        if (snapshot.getStep() != drawnStep || drawnAlpha < 1 || levelOffset != drawnEntitiesOffset) {
+            layers.invalidate(CanvasLayers.ENTITIES);
+        }
+        if (layers.isDirty(CanvasLayers.ENTITIES)) {
+            drawEntities(layers.begin(CanvasLayers.ENTITIES), snapshot, alpha);
+            drawnStep = snapshot.getStep();
+            drawnAlpha = alpha;
+            drawnEntitiesOffset = levelOffset;
+        }
+
+        int overlay = getOverlay(snapshot);
+        if (overlay != drawnOverlay || snapshot.getPlayerHealthWidth() != drawnHealthWidth
+                || snapshot.getRemainingEnemies() != drawnEnemies || snapshot.getRemainingStars() != drawnStars) {
+            layers.invalidate(CanvasLayers.HUD);
+        }
+        if (layers.isDirty(CanvasLayers.HUD)) {
+            drawHud(layers.begin(CanvasLayers.HUD), snapshot);
+            drawnOverlay = overlay;
+            drawnHealthWidth = snapshot.getPlayerHealthWidth();
+            drawnEnemies = snapshot.getRemainingEnemies();
+            drawnStars = snapshot.getRemainingStars();
+        } else if (overlay == PAUSE_OVERLAY) {
+            pauseOverlay.drawChanges(layers.get(CanvasLayers.HUD));
+        } else if (overlay == GAME_OVER_OVERLAY) {
+            gameOverOverlay.drawChanges(layers.get(CanvasLayers.HUD));
+        } else if (overlay == LEVEL_COMPLETED_OVERLAY) {
+            levelCompletedOverlay.drawChanges(layers.get(CanvasLayers.HUD));
+        }
+    }
+
+    /**
+     * Returns which overlay a snapshot shows, in the order they take precedence when drawn.
+     *
+     * @param snapshot the snapshot
+     * @return the overlay, NO_OVERLAY if the level is being played
+     */
+    private static int getOverlay(RenderSnapshot snapshot) {
+        if (snapshot.isPaused()) {
+            return PAUSE_OVERLAY;
+        } else if (snapshot.isGameOver()) {
+            return GAME_OVER_OVERLAY;
+        } else if (snapshot.isLevelCompleted()) {
+            return LEVEL_COMPLETED_OVERLAY;
+        } else if (snapshot.isGameCompleted()) {
+            return GAME_COMPLETED_OVERLAY;
+        }
+        return NO_OVERLAY;
+    }
+
+    /**
+     * Draws the static background.
+     *
+     * @param g the graphics context to draw on
+     */
+    private void drawBackground(GraphicsContext g) {
+        renderQueue.submit(RenderQueue.BACKGROUND, background, 0, 0, Game.GAME_WIDTH, Game.GAME_HEIGHT);
+        renderQueue.flush(g);
+    }
+
+    /**
+     * Draws the visible tiles of the level.
+     *
+     * @param g the graphics context to draw on
+     * @param levelOffset the x-offset for the level
+     */
+    private void drawLevel(GraphicsContext g, int levelOffset) {
+        levelManager.draw(renderQueue, levelOffset);
+        renderQueue.flush(g);
+    }
+
+    /**
+     * Draws the player, the objects, the enemies and the particles of a snapshot.
+     * The sprites are collected in the render queue and drawn in one flush, sorted by layer and texture.
+     *
+     * @param g the graphics context to draw on
+     * @param snapshot the snapshot to draw
+     * @param alpha the fraction of the tick elapsed since the snapshot, used to blend positions
+     */
+    private void drawEntities(GraphicsContext g, RenderSnapshot snapshot, double alpha) {
+        player.render(renderQueue, snapshot, alpha);
+        objectManager.draw(renderQueue, snapshot, alpha);
+        enemyManager.draw(renderQueue, snapshot, alpha);
+        renderQueue.flush(g);
+        ParticleSystem.draw(g, snapshot, alpha);
+    }
+
+    /**
+     * Draws the health bar, the remaining counts and the active overlay of a snapshot.
+     *
+     * @param g the graphics context to draw on
+     * @param snapshot the snapshot to draw
+     */
+    private void drawHud(GraphicsContext g, RenderSnapshot snapshot) {
+        player.drawUI(g, snapshot);
+        drawRemaining(g, snapshot);
+        if (snapshot.isPaused()) {
             pauseOverlay.draw(g);
-        } else if (gameOver) {
+        } else if (snapshot.isGameOver()) {
             gameOverOverlay.draw(g);
-        } else if (levelCompleted) {
+        } else if (snapshot.isLevelCompleted()) {
             levelCompletedOverlay.draw(g);
-        } else if (gameCompleted) {
+        } else if (snapshot.isGameCompleted()) {
             gameCompletedOverlay.draw(g);
         }
     }
 
+    /**
+     * Draws the number of enemies and stars left in the level in the top right corner.
+     *
+     * @param g the graphics context to draw on
+     * @param snapshot the snapshot to draw
+     */
+    private void drawRemaining(GraphicsContext g, RenderSnapshot snapshot) {
+        g.setFill(Color.WHITE);
+        g.setFont(Font.font(12 * Game.SCALE));
+        g.setTextAlign(TextAlignment.RIGHT);
+        g.fillText("Enemies: " + snapshot.getRemainingEnemies() + "   Stars: " + snapshot.getRemainingStars(),
+                Game.GAME_WIDTH - 10 * Game.SCALE, 20 * Game.SCALE);
+        g.setTextAlign(TextAlignment.LEFT);
+    }
+
     /**
      * Checks if the player is close to the screen border and updates the level offset.
      */
@@ -197,6 +447,8 @@ public class Playing extends State implements StateMethods {
         player.resetPlayer();
         enemyManager.resetAllEnemies();
         objectManager.resetAllObjects();
+        particles.clear();
+        worldStep++;
     }
 
     /**
@@ -204,7 +456,7 @@ public class Playing extends State implements StateMethods {
      *
      * @param attackBox the attack hitbox
      */
-    public void checkEnemyHit(Rectangle attackBox) {
+    public void checkEnemyHit(AABB attackBox) {
         enemyManager.checkEnemyHit(attackBox);
     }
 
@@ -213,7 +465,7 @@ public class Playing extends State implements StateMethods {
      *
      * @param hitBox the player's hitbox
      */
-    public void checkObjectTouched(Rectangle hitBox) {
+    public void checkObjectTouched(AABB hitBox) {
         objectManager.checkObjectTouched(hitBox);
     }
 
@@ -222,7 +474,7 @@ public class Playing extends State implements StateMethods {
      *
      * @param attackBox the attack hitbox
      */
-    public void checkObjectHit(Rectangle attackBox) {
+    public void checkObjectHit(AABB attackBox) {
         objectManager.checkObjectHit(attackBox);
     }
 
@@ -354,6 +606,31 @@ public class Playing extends State implements StateMethods {
         }
     }
 
+    /**
+     * Returns true if the game runs without a window, textures and audio.
+     *
+     * @return true for a headless game
+     */
+    public boolean isHeadless() {
+        return game.isHeadless();
+    }
+
+    public boolean isPaused() {
+        return paused;
+    }
+
+    public boolean isGameOver() {
+        return gameOver;
+    }
+
+    public boolean isLevelCompleted() {
+        return levelCompleted;
+    }
+
+    public boolean isGameCompleted() {
+        return gameCompleted;
+    }
+
     public Player getPlayer() {
         return player;
     }
@@ -366,6 +643,18 @@ public class Playing extends State implements StateMethods {
         return objectManager;
     }
 
+    public AnimationClock getAnimationClock() {
+        return animationClock;
+    }
+
+    public ParticleSystem getParticles() {
+        return particles;
+    }
+
+    public ActivityRegion getActivityRegion() {
+        return activityRegion;
+    }
+
     public LevelManager getLevelManager() {
         return levelManager;
     }
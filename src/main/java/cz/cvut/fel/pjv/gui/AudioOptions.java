@@ -67,6 +67,15 @@ public class AudioOptions {
         volumeButton.draw(gc);
     }
 
+    /**
+     * Returns the sound and volume buttons, for the retained UI of the screens that show them.
+     *
+     * @return the buttons in drawing order
+     */
+    public UIElement[] getElements() {
+        return new UIElement[]{musicButton, sfxButton, volumeButton};
+    }
+
     /**
      * Handles mouse dragged events to adjust the volume slider.
      *
@@ -20,6 +20,7 @@ public class GameOverOverlay {
     private Image image;
     private int imageX, imageY, imageWidth, imageHeight;
     private URMButtons menuButton, replayButton;
+    private RetainedUI ui;
 
     /**
      * Constructs a GameOverOverlay with the specified Playing instance.
@@ -30,6 +31,7 @@ public class GameOverOverlay {
         this.playing = playing;
         createImage();
         initButtons();
+        ui = new RetainedUI(this::drawBackground, menuButton, replayButton);
     }
 
     /**
@@ -68,11 +70,27 @@ public class GameOverOverlay {
      * @param g the GraphicsContext to draw on
      */
     public void draw(GraphicsContext g) {
+        ui.drawAll(g);
+    }
+
+    /**
+     * Redraws the buttons whose state changed since the overlay was drawn.
+     *
+     * @param g the GraphicsContext the overlay was drawn on
+     */
+    public void drawChanges(GraphicsContext g) {
+        ui.drawChanges(g);
+    }
+
+    /**
+     * Darkens the game and draws the game over image.
+     *
+     * @param g the GraphicsContext to draw on
+     */
+    private void drawBackground(GraphicsContext g) {
         g.setFill(Color.rgb(0, 0, 0, 0.5));
         g.fillRect(0, 0, Game.GAME_WIDTH, Game.GAME_HEIGHT);
         g.drawImage(image, imageX, imageY, imageWidth, imageHeight);
-        menuButton.draw(g);
-        replayButton.draw(g);
     }
 
     /**
@@ -19,6 +19,7 @@ public class LevelCompletedOverlay {
     private URMButtons menuButton, nextButton;
     private Image image;
     private int backgroundX, backgroundY, backgroundWidth, backgroundHeight;
+    private RetainedUI ui;
 
     /**
      * Constructs a LevelCompletedOverlay with the specified Playing instance.
@@ -29,6 +30,7 @@ public class LevelCompletedOverlay {
         this.playing = playing;
         initImage();
         initButtons();
+        ui = new RetainedUI(g -> g.drawImage(image, backgroundX, backgroundY, backgroundWidth, backgroundHeight), menuButton, nextButton);
     }
 
     /**
@@ -67,9 +69,16 @@ public class LevelCompletedOverlay {
      * @param gc the GraphicsContext to draw on
      */
     public void draw(GraphicsContext gc) {
-        gc.drawImage(image, backgroundX, backgroundY, backgroundWidth, backgroundHeight);
-        menuButton.draw(gc);
-        nextButton.draw(gc);
+        ui.drawAll(gc);
+    }
+
+    /**
+     * Redraws the buttons whose state changed since the overlay was drawn.
+     *
+     * @param gc the GraphicsContext the overlay was drawn on
+     */
+    public void drawChanges(GraphicsContext gc) {
+        ui.drawChanges(gc);
     }
 
     /**
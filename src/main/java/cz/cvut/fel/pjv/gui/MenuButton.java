@@ -1,10 +1,9 @@
 package cz.cvut.fel.pjv.gui;
 
 import cz.cvut.fel.pjv.gamestates.GameState;
+import cz.cvut.fel.pjv.render.SpriteRegion;
 import cz.cvut.fel.pjv.utils.LoadSave;
 import javafx.scene.canvas.GraphicsContext;
-import javafx.scene.image.Image;
-import javafx.scene.image.WritableImage;
 import javafx.scene.shape.Rectangle;
 
 import static cz.cvut.fel.pjv.utils.Constants.UI.Buttons.*;
@@ -12,11 +11,13 @@ import static cz.cvut.fel.pjv.utils.Constants.UI.Buttons.*;
 /**
  * Represents a button in the game's menu.
  */
-public class MenuButton {
-    private int xPos, yPos, rowIndex, index;
+public class MenuButton implements UIElement {
+    private int xPos, yPos, rowIndex;
+    // Written by the simulation thread and read by the JavaFX thread
+    private volatile int index;
     private int xOffsetCenter = B_WIDTH / 2;
     private GameState state;
-    private Image[] images;
+    private SpriteRegion[] images;
     private boolean mouseOver, mousePressed;
     private Rectangle bounds;
 
@@ -48,33 +49,32 @@ public class MenuButton {
      * Loads the button images from the sprite sheet.
      */
     private void loadImages() {
-        images = new Image[3];
-        Image temp = LoadSave.getSpriteAtlas(LoadSave.menuButtons);
-        for (int i = 0; i < images.length; i++) {
-            images[i] = new WritableImage(temp.getPixelReader(), i * B_WIDTH_DEFAULT, rowIndex * B_HEIGHT_DEFAULT, B_WIDTH_DEFAULT, B_HEIGHT_DEFAULT);
-        }
+        images = LoadSave.getFrames(LoadSave.menuButtons)[rowIndex];
     }
 
     /**
      * Draws the button on the provided GraphicsContext.
      *
      * @param g the GraphicsContext to draw on
+     * @param state the index of the sprite to show
      */
-    public void draw(GraphicsContext g) {
-        g.drawImage(images[index], xPos - xOffsetCenter, yPos, B_WIDTH, B_HEIGHT);
+    @Override
+    public void draw(GraphicsContext g, int state) {
+        images[state].draw(g, xPos - xOffsetCenter, yPos, B_WIDTH, B_HEIGHT);
     }
 
     /**
      * Updates the button's appearance based on mouse interaction.
      */
     public void update() {
-        index = 0;
+        int shown = 0;
         if (mouseOver) {
-            index = 1;
+            shown = 1;
         }
         if (mousePressed) {
-            index = 2;
+            shown = 2;
         }
+        index = shown;
     }
 
     /**
@@ -132,6 +132,21 @@ public class MenuButton {
         return bounds;
     }
 
+    @Override
+    public Rectangle getDrawBounds() {
+        return bounds;
+    }
+
+    /**
+     * Returns the index of the shown sprite, which changes with the hover and press state.
+     *
+     * @return the draw state of the button
+     */
+    @Override
+    public int getDrawState() {
+        return index;
+    }
+
     public GameState getState() {
         return state;
     }
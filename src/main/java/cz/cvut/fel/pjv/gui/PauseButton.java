@@ -5,7 +5,7 @@ import javafx.scene.shape.Rectangle;
 /**
  * Represents a button used in the pause menu.
  */
-public class PauseButton {
+public abstract class PauseButton implements UIElement {
     protected int x, y, width, height;
     protected Rectangle bounds;
 
@@ -36,6 +36,16 @@ public class PauseButton {
         return bounds;
     }
 
+    /**
+     * Returns the area the button draws on, which is its bounds.
+     *
+     * @return the drawn area
+     */
+    @Override
+    public Rectangle getDrawBounds() {
+        return bounds;
+    }
+
     public int getX() {
         return x;
     }
@@ -7,6 +7,9 @@ import cz.cvut.fel.pjv.utils.LoadSave;
 import javafx.scene.canvas.GraphicsContext;
 import javafx.scene.image.Image;
 import javafx.scene.input.MouseEvent;
+import javafx.scene.paint.Color;
+
+import java.util.Arrays;
 
 import static cz.cvut.fel.pjv.utils.Constants.UI.URMButtons.*;
 
@@ -20,6 +23,7 @@ public class PauseOverlay {
     private AudioOptions audioOptions;
     private int bgX, bgY, bgWidth, bgHeight;
     private URMButtons menuButton, replayButton, unpauseButton;
+    private RetainedUI ui;
 
     /**
      * Constructs a PauseOverlay with the given Playing instance.
@@ -31,6 +35,12 @@ public class PauseOverlay {
         loadBackground();
         audioOptions = playing.getGame().getAudioOptions();
         createURMButtons();
+        UIElement[] audioElements = audioOptions.getElements();
+        UIElement[] elements = Arrays.copyOf(audioElements, audioElements.length + 3);
+        elements[audioElements.length] = menuButton;
+        elements[audioElements.length + 1] = replayButton;
+        elements[audioElements.length + 2] = unpauseButton;
+        ui = new RetainedUI(this::drawBackground, elements);
     }
 
     /**
@@ -74,11 +84,27 @@ public class PauseOverlay {
      * @param g the GraphicsContext used for drawing
      */
     public void draw(GraphicsContext g) {
+        ui.drawAll(g);
+    }
+
+    /**
+     * Redraws the buttons whose state changed since the overlay was drawn.
+     *
+     * @param g the GraphicsContext the overlay was drawn on
+     */
+    public void drawChanges(GraphicsContext g) {
+        ui.drawChanges(g);
+    }
+
+    /**
+     * Darkens the game and draws the background of the pause menu.
+     *
+     * @param g the GraphicsContext used for drawing
+     */
+    private void drawBackground(GraphicsContext g) {
+        g.setFill(Color.rgb(0, 0, 0, 0.7));
+        g.fillRect(0, 0, Game.GAME_WIDTH, Game.GAME_HEIGHT);
         g.drawImage(backgroundImage, bgX, bgY, bgWidth, bgHeight);
-        menuButton.draw(g);
-        replayButton.draw(g);
-        unpauseButton.draw(g);
-        audioOptions.draw(g);
     }
 
     /**
@@ -0,0 +1,120 @@
+package cz.cvut.fel.pjv.gui;
+
+import cz.cvut.fel.pjv.render.CanvasLayers;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.shape.Rectangle;
+
+import java.util.function.Consumer;
+
+/**
+ * A screen of UI elements over a static background that stays on its canvas between frames.
+ * It remembers what each element showed when it was last drawn; when an element changes, only its rectangle
+ * is cleared and redrawn, and when nothing changed the canvas is not touched at all.
+ * Each element's draw state is read once per draw, and the element is drawn in exactly the state that is
+ * remembered, so a change made by the simulation in the middle of a frame is picked up by the next frame.
+ * Must only be used on the JavaFX Application Thread.
+ */
+public class RetainedUI {
+    private final Consumer<GraphicsContext> background;
+    private final UIElement[] elements;
+    private final int[] drawnStates;
+    private boolean drawn;
+
+    /**
+     * Constructs a RetainedUI.
+     *
+     * @param background draws the static content under the elements; it may draw the whole screen, a redraw clips it
+     * @param elements the elements, drawn in this order
+     */
+    public RetainedUI(Consumer<GraphicsContext> background, UIElement... elements) {
+        this.background = background;
+        this.elements = elements;
+        drawnStates = new int[elements.length];
+    }
+
+    /**
+     * Draws the background and all elements, for when the canvas was cleared or shows something else.
+     *
+     * @param g the GraphicsContext to draw on
+     */
+    public void drawAll(GraphicsContext g) {
+        background.accept(g);
+        for (int i = 0; i < elements.length; i++) {
+            drawElement(g, i);
+        }
+        drawn = true;
+    }
+
+    /**
+     * Redraws the rectangles of the elements that changed since they were last drawn.
+     *
+     * @param g the GraphicsContext the UI was drawn on
+     * @return true if anything was drawn, false if the canvas was left untouched
+     */
+    public boolean drawChanges(GraphicsContext g) {
+        if (!drawn) {
+            drawAll(g);
+            return true;
+        }
+        boolean changed = false;
+        for (int i = 0; i < elements.length; i++) {
+            if (elements[i].getDrawState() != drawnStates[i]) {
+                redraw(g, elements[i].getDrawBounds());
+                changed = true;
+            }
+        }
+        return changed;
+    }
+
+    /**
+     * Brings a canvas layer showing this UI up to date. An invalidated layer is cleared and drawn in full,
+     * otherwise only the changed elements are redrawn.
+     *
+     * @param layers the canvas layers
+     * @param layer the layer showing the UI
+     * @return true if anything was drawn, false if the layer was left untouched
+     */
+    public boolean draw(CanvasLayers layers, int layer) {
+        if (layers.isDirty(layer)) {
+            drawAll(layers.begin(layer));
+            return true;
+        }
+        return drawChanges(layers.get(layer));
+    }
+
+    /**
+     * Clears a rectangle and draws the background and the elements overlapping it, clipped to the rectangle.
+     */
+    private void redraw(GraphicsContext g, Rectangle dirty) {
+        double x = dirty.getX(), y = dirty.getY(), width = dirty.getWidth(), height = dirty.getHeight();
+        g.save();
+        g.beginPath();
+        g.rect(x, y, width, height);
+        g.clip();
+        g.clearRect(x, y, width, height);
+        background.accept(g);
+        for (int i = 0; i < elements.length; i++) {
+            Rectangle r = elements[i].getDrawBounds();
+            if (r.getX() < x + width && x < r.getX() + r.getWidth() && r.getY() < y + height && y < r.getY() + r.getHeight()) {
+                drawElement(g, i);
+            }
+        }
+        g.restore();
+    }
+
+    /**
+     * Draws an element in its current draw state and remembers that state.
+     */
+    private void drawElement(GraphicsContext g, int i) {
+        int state = elements[i].getDrawState();
+        elements[i].draw(g, state);
+        drawnStates[i] = state;
+    }
+
+    /**
+     * Forgets what was drawn, so the next drawChanges draws everything.
+     */
+    public void invalidate() {
+        drawn = false;
+    }
+}
@@ -1,21 +1,19 @@
 package cz.cvut.fel.pjv.gui;
 
+import cz.cvut.fel.pjv.render.SpriteRegion;
 import cz.cvut.fel.pjv.utils.LoadSave;
 import javafx.scene.canvas.GraphicsContext;
-import javafx.scene.image.Image;
-import javafx.scene.image.WritableImage;
-
-import static cz.cvut.fel.pjv.utils.Constants.UI.PauseButtons.*;
 
 /**
  * Represents a sound button used in the game's pause overlay.
  * This button allows the user to toggle sound on and off.
  */
 public class SoundButton extends PauseButton {
-    private Image[][] soundImages;
+    private SpriteRegion[][] soundImages;
     private boolean mouseOver, mousePressed;
     private boolean muted;
-    private int rowIndex, colIndex;
+    // The shown sprite as rowIndex * 3 + colIndex, written by the simulation thread and read by the JavaFX thread
+    private volatile int shownSprite;
 
     /**
      * Constructs a SoundButton with specified position and size.
@@ -34,33 +32,30 @@ public class SoundButton extends PauseButton {
      * Loads the images for the sound button.
      */
     private void loadSoundImages() {
-        Image temp = LoadSave.getSpriteAtlas(LoadSave.soundButtons);
-        soundImages = new Image[2][3];
-        for (int j = 0; j < soundImages.length; j++) {
-            for (int i = 0; i < soundImages[j].length; i++) {
-                soundImages[j][i] = new WritableImage(temp.getPixelReader(), i * SOUND_SIZE_DEFAULT, j * SOUND_SIZE_DEFAULT, SOUND_SIZE_DEFAULT, SOUND_SIZE_DEFAULT);
-            }
-        }
+        soundImages = LoadSave.getFrames(LoadSave.soundButtons);
     }
 
     /**
      * Updates the state of the sound button, including its visual representation.
      */
     public void update() {
-        rowIndex = muted ? 1 : 0;
-        colIndex = mouseOver ? 1 : 0;
+        int rowIndex = muted ? 1 : 0;
+        int colIndex = mouseOver ? 1 : 0;
         if (mousePressed) {
             colIndex = 2;
         }
+        shownSprite = rowIndex * 3 + colIndex;
     }
 
     /**
      * Draws the sound button on the provided GraphicsContext.
      *
      * @param g the GraphicsContext used for drawing
+     * @param state the shown sprite, as returned by getDrawState()
      */
-    public void draw(GraphicsContext g) {
-        g.drawImage(soundImages[rowIndex][colIndex], x, y, width, height);
+    @Override
+    public void draw(GraphicsContext g, int state) {
+        soundImages[state / 3][state % 3].draw(g, x, y, width, height);
     }
 
     /**
@@ -71,6 +66,16 @@ public class SoundButton extends PauseButton {
         mousePressed = false;
     }
 
+    /**
+     * Returns the shown sprite, which changes with the muted, hover and press state.
+     *
+     * @return the draw state of the button
+     */
+    @Override
+    public int getDrawState() {
+        return shownSprite;
+    }
+
     public boolean isMouseOver() {
         return mouseOver;
     }
@@ -0,0 +1,45 @@
+package cz.cvut.fel.pjv.gui;
+
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.shape.Rectangle;
+
+/**
+ * An element of a retained UI, such as a button, that can tell when it would look different.
+ * The simulation thread updates the element while the JavaFX thread draws it, so the whole look
+ * of the element is one draw state that is published at once and drawn from a single read.
+ */
+public interface UIElement {
+
+    /**
+     * Draws the element as it looks in the given draw state.
+     *
+     * @param g the GraphicsContext to draw on
+     * @param state a draw state returned by getDrawState()
+     */
+    void draw(GraphicsContext g, int state);
+
+    /**
+     * Draws the element in its current draw state.
+     *
+     * @param g the GraphicsContext to draw on
+     */
+    default void draw(GraphicsContext g) {
+        draw(g, getDrawState());
+    }
+
+    /**
+     * Returns a number that changes whenever the element would draw differently,
+     * for example the sprite it shows for its hover and press state.
+     * It is safe to call from any thread.
+     *
+     * @return the draw state of the element
+     */
+    int getDrawState();
+
+    /**
+     * Returns the area the element draws on.
+     *
+     * @return the drawn area
+     */
+    Rectangle getDrawBounds();
+}
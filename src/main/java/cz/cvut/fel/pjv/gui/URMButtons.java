@@ -1,9 +1,8 @@
 package cz.cvut.fel.pjv.gui;
 
+import cz.cvut.fel.pjv.render.SpriteRegion;
 import cz.cvut.fel.pjv.utils.LoadSave;
 import javafx.scene.canvas.GraphicsContext;
-import javafx.scene.image.Image;
-import javafx.scene.image.WritableImage;
 
 import static cz.cvut.fel.pjv.utils.Constants.UI.URMButtons.*;
 
@@ -12,8 +11,10 @@ import static cz.cvut.fel.pjv.utils.Constants.UI.URMButtons.*;
  * This button can be used for actions such as unpause, replay, or menu navigation.
  */
 public class URMButtons extends PauseButton {
-    private Image[] images;
-    private int rowIndex, index;
+    private SpriteRegion[] images;
+    private int rowIndex;
+    // Written by the simulation thread and read by the JavaFX thread
+    private volatile int index;
     private boolean mouseOver, mousePressed;
 
     /**
@@ -35,33 +36,32 @@ public class URMButtons extends PauseButton {
      * Loads the images for the URMButton.
      */
     private void loadImgs() {
-        Image temp = LoadSave.getSpriteAtlas(LoadSave.urmButtons);
-        images = new Image[3];
-        for (int i = 0; i < images.length; i++) {
-            images[i] = new WritableImage(temp.getPixelReader(), i * URM_SIZE_DEFAULT, rowIndex * URM_SIZE_DEFAULT, URM_SIZE_DEFAULT, URM_SIZE_DEFAULT);
-        }
+        images = LoadSave.getFrames(LoadSave.urmButtons)[rowIndex];
     }
 
     /**
      * Updates the state of the URMButton, including its visual representation.
      */
     public void update() {
-        index = 0;
+        int shown = 0;
         if (mouseOver) {
-            index = 1;
+            shown = 1;
         }
         if (mousePressed) {
-            index = 2;
+            shown = 2;
         }
+        index = shown;
     }
 
     /**
      * Draws the URMButton on the provided GraphicsContext.
      *
      * @param g the GraphicsContext used for drawing
+     * @param state the index of the sprite to show
      */
-    public void draw(GraphicsContext g) {
-        g.drawImage(images[index], x, y, URM_SIZE, URM_SIZE);
+    @Override
+    public void draw(GraphicsContext g, int state) {
+        images[state].draw(g, x, y, URM_SIZE, URM_SIZE);
     }
 
     /**
@@ -72,6 +72,16 @@ public class URMButtons extends PauseButton {
         mousePressed = false;
     }
 
+    /**
+     * Returns the index of the shown sprite, which changes with the hover and press state.
+     *
+     * @return the draw state of the button
+     */
+    @Override
+    public int getDrawState() {
+        return index;
+    }
+
     public boolean isMouseOver() {
         return mouseOver;
     }
@@ -1,9 +1,9 @@
 package cz.cvut.fel.pjv.gui;
 
+import cz.cvut.fel.pjv.render.SpriteRegion;
 import cz.cvut.fel.pjv.utils.LoadSave;
 import javafx.scene.canvas.GraphicsContext;
-import javafx.scene.image.Image;
-import javafx.scene.image.WritableImage;
+import javafx.scene.shape.Rectangle;
 
 import static cz.cvut.fel.pjv.utils.Constants.UI.VolumeButtons.*;
 
@@ -12,13 +12,16 @@ import static cz.cvut.fel.pjv.utils.Constants.UI.VolumeButtons.*;
  */
 public class VolumeButtons extends PauseButton {
 
-    private Image[] images;
-    private Image slider;
+    private SpriteRegion[] images;
+    private SpriteRegion slider;
     private int index = 0;
     private boolean mouseOver, mousePressed;
     private int buttonX;
     private int minX, maxX;
     private double value = 0d;
+    private Rectangle drawBounds;
+    // buttonX * 3 + index, written by the simulation thread and read by the JavaFX thread
+    private volatile int drawState;
 
     /**
      * Constructs a VolumeButton with specified position, size, and height.
@@ -36,6 +39,8 @@ public class VolumeButtons extends PauseButton {
         this.width = width;
         minX = x + VOLUME_WIDTH / 2;
         maxX = x + width - VOLUME_WIDTH / 2;
+        drawBounds = new Rectangle(x, y, width, height);
+        drawState = buttonX * 3;
         loadImgs();
     }
 
@@ -43,13 +48,9 @@ public class VolumeButtons extends PauseButton {
      * Loads images for the volume button and slider.
      */
     private void loadImgs() {
-        Image temp = LoadSave.getSpriteAtlas(LoadSave.volumeButtons);
-        images = new Image[3];
-        for (int i = 0; i < images.length; i++) {
-            images[i] = new WritableImage(temp.getPixelReader(), i * VOLUME_WIDTH_DEFAULT, 0, VOLUME_WIDTH_DEFAULT, VOLUME_HEIGHT_DEFAULT);
-        }
+        images = LoadSave.getFrames(LoadSave.volumeButtons)[0];
 
-        slider = new WritableImage(temp.getPixelReader(), 3 * VOLUME_WIDTH_DEFAULT, 0, SLIDER_WIDTH_DEFAULT, VOLUME_HEIGHT_DEFAULT);
+        slider = LoadSave.getSprite(LoadSave.volumeButtons).region(3 * VOLUME_WIDTH_DEFAULT, 0, SLIDER_WIDTH_DEFAULT, VOLUME_HEIGHT_DEFAULT);
     }
 
     /**
@@ -63,16 +64,19 @@ public class VolumeButtons extends PauseButton {
         if (mousePressed) {
             index = 2;
         }
+        drawState = buttonX * 3 + index;
     }
 
     /**
      * Draws the volume button and slider on the provided GraphicsContext.
      *
      * @param g the GraphicsContext used for drawing
+     * @param state the knob position and sprite, as returned by getDrawState()
      */
-    public void draw(GraphicsContext g) {
-        g.drawImage(slider, x, y, width, height);
-        g.drawImage(images[index], buttonX - VOLUME_WIDTH / 2, y, VOLUME_WIDTH, height);
+    @Override
+    public void draw(GraphicsContext g, int state) {
+        slider.draw(g, x, y, width, height);
+        images[state % 3].draw(g, state / 3 - VOLUME_WIDTH / 2, y, VOLUME_WIDTH, height);
     }
 
     /**
@@ -90,6 +94,7 @@ public class VolumeButtons extends PauseButton {
         }
         updateValue();
         bounds.setX(buttonX - VOLUME_WIDTH / 2);
+        drawState = buttonX * 3 + index;
     }
 
     /**
@@ -109,6 +114,26 @@ public class VolumeButtons extends PauseButton {
         mousePressed = false;
     }
 
+    /**
+     * Returns a number combining the knob position and the shown knob sprite.
+     *
+     * @return the draw state of the slider
+     */
+    @Override
+    public int getDrawState() {
+        return drawState;
+    }
+
+    /**
+     * Returns the area of the whole slider, since the knob moves along it.
+     *
+     * @return the drawn area
+     */
+    @Override
+    public Rectangle getDrawBounds() {
+        return drawBounds;
+    }
+
     public boolean isMouseOver() {
         return mouseOver;
     }
@@ -0,0 +1,102 @@
+package cz.cvut.fel.pjv.levels;
+
+import cz.cvut.fel.pjv.characters.EnemyRegistry;
+import cz.cvut.fel.pjv.characters.EnemyStore;
+import cz.cvut.fel.pjv.main.Game;
+import cz.cvut.fel.pjv.objects.ObjectStore;
+import javafx.geometry.Point2D;
+import javafx.scene.image.Image;
+import javafx.scene.image.PixelFormat;
+
+import java.util.Arrays;
+
+import static cz.cvut.fel.pjv.utils.Constants.ObjectConstants.*;
+
+/**
+ * Decodes a level image into the tile map and the entity stores of the level.
+ * The red channel of a pixel holds the tile, the green channel the enemy or the player spawn
+ * and the blue channel the object at that tile.
+ * The image is read once with a bulk getPixels call and scanned once, filling everything together.
+ * Enemies are spawned by the color keys of EnemyRegistry and get their ids grouped by type, in the order
+ * of the types in the registry; objects get their ids in row-major order.
+ */
+public class LevelDecoder {
+    private static final int PLAYER_SPAWN = 255;
+
+    private final TileMap tileMap;
+    private final EnemyStore enemies = new EnemyStore(16);
+    private final ObjectStore objects = new ObjectStore(16);
+    private Point2D playerSpawn;
+
+    /**
+     * Decodes the given level image.
+     *
+     * @param image the image representing the level
+     */
+    public LevelDecoder(Image image) {
+        int width = (int) image.getWidth();
+        int height = (int) image.getHeight();
+        int[] pixels = new int[width * height];
+        image.getPixelReader().getPixels(0, 0, width, height, PixelFormat.getIntArgbInstance(), pixels, 0, width);
+
+        tileMap = new TileMap(width, height);
+        EnemyRegistry registry = EnemyRegistry.getDefault();
+        long[] spawns = new long[16];
+        int spawnCount = 0;
+        for (int j = 0; j < height; j++) {
+            for (int i = 0; i < width; i++) {
+                int argb = pixels[j * width + i];
+                int x = i * Game.TILES_SIZE;
+                int y = j * Game.TILES_SIZE;
+
+                int tile = (argb >> 16) & 0xFF;
+                tileMap.setTile(i, j, tile >= 45 ? 0 : tile);
+
+                int green = (argb >> 8) & 0xFF;
+                int enemyType = registry.getTypeByColorKey(green);
+                if (enemyType >= 0) {
+                    if (spawnCount == spawns.length) {
+                        spawns = Arrays.copyOf(spawns, spawnCount * 2);
+                    }
+                    spawns[spawnCount++] = (long) enemyType << 32 | (j * width + i);
+                } else if (green == PLAYER_SPAWN && playerSpawn == null) {
+                    playerSpawn = new Point2D(x, y);
+                }
+
+                int blue = argb & 0xFF;
+                switch (blue) {
+                    case HEALTH_POTION, BARREL, BOX, SPIKE, STAR -> objects.add(blue, x, y);
+                    default -> {
+                    }
+                }
+            }
+        }
+
+        // Each spawn is the type in the high and the pixel index in the low half, so sorting groups them by type
+        Arrays.sort(spawns, 0, spawnCount);
+        for (int k = 0; k < spawnCount; k++) {
+            int pixel = (int) spawns[k];
+            enemies.add((int) (spawns[k] >>> 32), (pixel % width) * Game.TILES_SIZE, (pixel / width) * Game.TILES_SIZE);
+        }
+
+        if (playerSpawn == null) {
+            playerSpawn = new Point2D(Game.TILES_SIZE, Game.TILES_SIZE);
+        }
+    }
+
+    public TileMap getTileMap() {
+        return tileMap;
+    }
+
+    public EnemyStore getEnemies() {
+        return enemies;
+    }
+
+    public ObjectStore getObjects() {
+        return objects;
+    }
+
+    public Point2D getPlayerSpawn() {
+        return playerSpawn;
+    }
+}
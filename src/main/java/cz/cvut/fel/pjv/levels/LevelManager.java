@@ -1,11 +1,11 @@
 package cz.cvut.fel.pjv.levels;
 
 import cz.cvut.fel.pjv.main.Game;
+import cz.cvut.fel.pjv.render.RenderQueue;
+import cz.cvut.fel.pjv.render.SpriteRegion;
 import cz.cvut.fel.pjv.utils.LoadSave;
 
-import javafx.scene.canvas.GraphicsContext;
 import javafx.scene.image.Image;
-import javafx.scene.image.WritableImage;
 
 import java.util.ArrayList;
 
@@ -14,9 +14,10 @@ import java.util.ArrayList;
  */
 public class LevelManager {
     private Game game;
-    private Image[] levelSprite;
+    private SpriteRegion[] levelSprite;
     private ArrayList<Level> levels;
     private int levelIndex = 0;
+    private TileChunkCache chunkCache;
 
     /**
      * Constructs a LevelManager with the specified game instance.
@@ -25,7 +26,9 @@ public class LevelManager {
      */
     public LevelManager(Game game) {
         this.game = game;
-        importTilesSprites();
+        if (!game.isHeadless()) {
+            importTilesSprites();
+        }
         levels = new ArrayList<>();
         buildAllLevels();
     }
@@ -44,14 +47,27 @@ public class LevelManager {
      * Loads the next level in the sequence. If the current level is the last one, it loops back to the first level.
      */
     public void loadNextLevel() {
-        levelIndex++;
-        if (levelIndex >= levels.size()) {
-            levelIndex = 0;
+        int nextIndex = levelIndex + 1;
+        if (nextIndex >= levels.size()) {
+            nextIndex = 0;
         }
+        loadLevel(nextIndex);
+    }
+
+    /**
+     * Loads the level with the given index into the playing state.
+     *
+     * @param index the index of the level
+     */
+    public void loadLevel(int index) {
+        if (index < 0 || index >= levels.size()) {
+            throw new IllegalArgumentException("No level with index " + index);
+        }
+        levelIndex = index;
 
         Level nextLevel = levels.get(levelIndex);
         game.getPlaying().getEnemyManager().loadEnemies(nextLevel);
-        game.getPlaying().getPlayer().loadLevelData(nextLevel.getLevelData());
+        game.getPlaying().getPlayer().loadLevelData(nextLevel.getTileMap());
         game.getPlaying().setMaxLevelOffset(nextLevel.getLevelOffset());
         game.getPlaying().getObjectManager().loadObjects(nextLevel);
     }
@@ -60,32 +76,26 @@ public class LevelManager {
      * Imports tile sprites from the level atlas.
      */
     private void importTilesSprites() {
-        Image image = LoadSave.getSpriteAtlas(LoadSave.levelAtlas);
-        levelSprite = new Image[81];
-        int width = (int) image.getWidth() / 9;
-        int height = (int) image.getHeight() / 4;
-
+        SpriteRegion sheet = LoadSave.getSprite(LoadSave.levelAtlas);
+        levelSprite = new SpriteRegion[4 * 9];
         for (int j = 0; j < 4; j++) { // j - height
             for (int i = 0; i < 9; i++) { // i - width
-                int index = j * 9 + i;
-                levelSprite[index] = new WritableImage(image.getPixelReader(), i * 32, j * 32, 32, 32);
+                levelSprite[j * 9 + i] = sheet.region(i * 32, j * 32, 32, 32);
             }
         }
     }
 
     /**
-     * Draws the current level on the provided GraphicsContext.
+     * Submits the visible part of the current level to the render queue as cached tile chunks.
      *
-     * @param gc the GraphicsContext to draw on
+     * @param queue the render queue to submit to
      * @param levelOffset the x-offset for the level
      */
-    public void draw(GraphicsContext gc, int levelOffset) {
-        for (int j = 0; j < Game.TILES_IN_HEIGHT; j++) {
-            for (int i = 0; i < levels.get(levelIndex).getLevelData()[0].length; i++) {
-                int index = levels.get(levelIndex).getSpriteIndex(i, j);
-                gc.drawImage(levelSprite[index], i * Game.TILES_SIZE - levelOffset, j * Game.TILES_SIZE, Game.TILES_SIZE, Game.TILES_SIZE);
-            }
+    public void draw(RenderQueue queue, int levelOffset) {
+        if (chunkCache == null) {
+            chunkCache = new TileChunkCache(levelSprite);
         }
+        chunkCache.draw(queue, levels.get(levelIndex), levelOffset);
     }
 
     public Level getCurrentLevel() {
@@ -0,0 +1,115 @@
+package cz.cvut.fel.pjv.levels;
+
+import cz.cvut.fel.pjv.main.Game;
+import cz.cvut.fel.pjv.render.RenderQueue;
+import cz.cvut.fel.pjv.render.SpriteRegion;
+import javafx.scene.SnapshotParameters;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.image.WritableImage;
+import javafx.scene.paint.Color;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Caches the static tiles of a level as pre-rendered chunk images, so a frame draws
+ * two or three chunk images instead of one scaled image per tile.
+ * Chunks are baked lazily when the camera reaches them and the least recently used ones
+ * are evicted, so memory stays bounded on long levels. Must only be used on the JavaFX Application Thread.
+ */
+public class TileChunkCache {
+    public static final int CHUNK_TILES_WIDE = 16;
+    public static final int CHUNK_WIDTH = CHUNK_TILES_WIDE * Game.TILES_SIZE;
+    private static final int MAX_CHUNKS = 8;
+
+    private final SpriteRegion[] levelSprite;
+    private final Canvas bakeCanvas = new Canvas(CHUNK_WIDTH, Game.GAME_HEIGHT);
+    private final SnapshotParameters bakeParameters = new SnapshotParameters();
+    private final Map<Integer, WritableImage> chunks = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer, WritableImage> eldest) {
+            return size() > MAX_CHUNKS;
+        }
+    };
+    private Level level;
+
+    /**
+     * Constructs an empty TileChunkCache.
+     *
+     * @param levelSprite the tile sprites, indexed by tile value; tiles past the end, like air, are not drawn
+     */
+    public TileChunkCache(SpriteRegion[] levelSprite) {
+        this.levelSprite = levelSprite;
+        bakeParameters.setFill(Color.TRANSPARENT);
+    }
+
+    /**
+     * Submits the chunks of the level that intersect the screen to the render queue. Missing chunks are baked first,
+     * and at most one chunk next to the screen is baked ahead per frame.
+     *
+     * @param queue the render queue to submit to
+     * @param level the level to draw
+     * @param levelOffset the x-offset for the level
+     */
+    public void draw(RenderQueue queue, Level level, int levelOffset) {
+        if (level != this.level) {
+            chunks.clear();
+            this.level = level;
+        }
+
+        int chunkCount = (level.getTileMap().getWidth() + CHUNK_TILES_WIDE - 1) / CHUNK_TILES_WIDE;
+        int firstChunk = Math.max(0, levelOffset / CHUNK_WIDTH);
+        int lastChunk = Math.min(chunkCount - 1, (levelOffset + Game.GAME_WIDTH - 1) / CHUNK_WIDTH);
+
+        for (int c = firstChunk; c <= lastChunk; c++) {
+            WritableImage chunk = getChunk(c);
+            queue.submit(RenderQueue.LEVEL, chunk, c * CHUNK_WIDTH - levelOffset, 0, chunk.getWidth(), chunk.getHeight());
+        }
+
+        if (firstChunk > 0 && !chunks.containsKey(firstChunk - 1)) {
+            getChunk(firstChunk - 1);
+        } else if (lastChunk < chunkCount - 1 && !chunks.containsKey(lastChunk + 1)) {
+            getChunk(lastChunk + 1);
+        }
+    }
+
+    /**
+     * Returns a chunk image, baking it if it is not cached.
+     *
+     * @param chunk the index of the chunk
+     * @return the chunk image
+     */
+    private WritableImage getChunk(int chunk) {
+        WritableImage image = chunks.get(chunk);
+        if (image == null) {
+            image = bake(chunk);
+            chunks.put(chunk, image);
+        }
+        return image;
+    }
+
+    /**
+     * Renders the tiles of one chunk at the game scale into a new image.
+     *
+     * @param chunk the index of the chunk
+     * @return the chunk image
+     */
+    private WritableImage bake(int chunk) {
+        TileMap tileMap = level.getTileMap();
+        int firstColumn = chunk * CHUNK_TILES_WIDE;
+        int lastColumn = Math.min(tileMap.getWidth(), firstColumn + CHUNK_TILES_WIDE);
+
+        GraphicsContext gc = bakeCanvas.getGraphicsContext2D();
+        gc.clearRect(0, 0, CHUNK_WIDTH, Game.GAME_HEIGHT);
+        for (int j = 0; j < Math.min(Game.TILES_IN_HEIGHT, tileMap.getHeight()); j++) {
+            for (int i = firstColumn; i < lastColumn; i++) {
+                int tile = tileMap.getTile(i, j);
+                if (tile >= 0 && tile < levelSprite.length) {
+                    levelSprite[tile].draw(gc, (i - firstColumn) * Game.TILES_SIZE, j * Game.TILES_SIZE, Game.TILES_SIZE, Game.TILES_SIZE);
+                }
+            }
+        }
+        return bakeCanvas.snapshot(bakeParameters, null);
+    }
+}
@@ -0,0 +1,139 @@
+package cz.cvut.fel.pjv.levels;
+
+import cz.cvut.fel.pjv.main.Game;
+
+import java.util.Arrays;
+
+/**
+ * The tile layout of a level, stored row by row in one flat byte array.
+ * Next to the tiles the map keeps a bitset with one bit per tile telling whether the tile is solid,
+ * so collision checks test a single bit instead of comparing the tile value.
+ */
+public class TileMap {
+    /**
+     * The only tile value entities can pass through.
+     */
+    public static final int AIR = 44;
+
+    private final int width, height;
+    private final byte[] tiles;
+    private final long[] solid;
+
+    /**
+     * Constructs a TileMap of the given size filled with the solid tile 0.
+     *
+     * @param width the width of the map in tiles
+     * @param height the height of the map in tiles
+     */
+    public TileMap(int width, int height) {
+        this.width = width;
+        this.height = height;
+        this.tiles = new byte[width * height];
+        this.solid = new long[(width * height + 63) >>> 6];
+        Arrays.fill(solid, -1L);
+    }
+
+    /**
+     * Constructs a TileMap holding the tiles of the given rows.
+     *
+     * @param levelData the tile values, indexed [y][x]
+     */
+    public TileMap(int[][] levelData) {
+        this(levelData[0].length, levelData.length);
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                setTile(x, y, levelData[y][x]);
+            }
+        }
+    }
+
+    /**
+     * Sets the value of a tile and updates its solidity.
+     *
+     * @param x the x-coordinate of the tile
+     * @param y the y-coordinate of the tile
+     * @param value the tile value, 0 to 44
+     */
+    public void setTile(int x, int y, int value) {
+        int index = y * width + x;
+        tiles[index] = (byte) value;
+        if (value == AIR) {
+            solid[index >>> 6] &= ~(1L << index);
+        } else {
+            solid[index >>> 6] |= 1L << index;
+        }
+    }
+
+    /**
+     * Returns the value of a tile, which is also the index of its sprite.
+     *
+     * @param x the x-coordinate of the tile
+     * @param y the y-coordinate of the tile
+     * @return the tile value
+     */
+    public int getTile(int x, int y) {
+        return tiles[y * width + x];
+    }
+
+    /**
+     * Checks if a tile is solid.
+     *
+     * @param x the x-coordinate of the tile
+     * @param y the y-coordinate of the tile
+     * @return true if the tile is solid
+     */
+    public boolean isSolid(int x, int y) {
+        int index = y * width + x;
+        return (solid[index >>> 6] & (1L << index)) != 0;
+    }
+
+    /**
+     * Checks if the point at the given pixel coordinates lies in a solid tile. Everything outside the map is solid.
+     *
+     * @param x the x-coordinate in pixels
+     * @param y the y-coordinate in pixels
+     * @return true if the point is solid
+     */
+    public boolean isSolidAt(double x, double y) {
+        if (x < 0 || x >= width * Game.TILES_SIZE || y < 0 || y >= height * Game.TILES_SIZE) {
+            return true;
+        }
+        return isSolid((int) (x / Game.TILES_SIZE), (int) (y / Game.TILES_SIZE));
+    }
+
+    /**
+     * Counts the solid tiles in a part of a row.
+     *
+     * @param xStart the first tile, inclusive
+     * @param xEnd the last tile, exclusive
+     * @param y the row
+     * @return the number of solid tiles
+     */
+    public int countSolid(int xStart, int xEnd, int y) {
+        if (xEnd <= xStart) {
+            return 0;
+        }
+        int from = y * width + xStart;
+        int to = y * width + xEnd;
+        int firstWord = from >>> 6;
+        int lastWord = (to - 1) >>> 6;
+        long firstMask = -1L << from;
+        long lastMask = -1L >>> -to;
+        if (firstWord == lastWord) {
+            return Long.bitCount(solid[firstWord] & firstMask & lastMask);
+        }
+        int count = Long.bitCount(solid[firstWord] & firstMask);
+        for (int i = firstWord + 1; i < lastWord; i++) {
+            count += Long.bitCount(solid[i]);
+        }
+        return count + Long.bitCount(solid[lastWord] & lastMask);
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+}
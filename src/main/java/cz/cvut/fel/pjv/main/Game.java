@@ -7,9 +7,10 @@ import cz.cvut.fel.pjv.gamestates.Menu;
 import cz.cvut.fel.pjv.gamestates.Playing;
 import cz.cvut.fel.pjv.gui.AudioOptions;
 import cz.cvut.fel.pjv.inputs.KeyboardInputs;
+import cz.cvut.fel.pjv.render.CanvasLayers;
+import cz.cvut.fel.pjv.render.ScalingStrategy;
 
 import javafx.scene.Scene;
-import javafx.scene.canvas.GraphicsContext;
 
 /**
  * The main class for the game, responsible for initializing components,
@@ -19,15 +20,18 @@ public class Game implements Runnable {
     private Window window;
     private Panel panel;
     private Thread gameLoopThread;
-    private final int FPS_SET = 120;
-    private final int UPS_SET = 200;
+    private final LoopScheduler scheduler = new LoopScheduler(DEFAULT_UPS, DEFAULT_FPS);
     private KeyboardInputs keyboardInputs;
     private Playing playing;
     private Menu menu;
     private AudioOptions audioOptions;
     private GameOptions gameOptions;
     private AudioPlayer audioPlayer;
+    private final boolean headless;
+    private GameState renderedState;
 
+    public final static int DEFAULT_FPS = 120;
+    public final static int DEFAULT_UPS = 200;
     public final static int TILES_DEFAULT_SIZE = 32; // may be changed later
     public final static double SCALE = 1.5d;
     public final static int TILES_IN_WIDTH = 26;
@@ -35,11 +39,13 @@ public class Game implements Runnable {
     public final static int TILES_SIZE = (int) (TILES_DEFAULT_SIZE * SCALE);
     public final static int GAME_WIDTH = TILES_SIZE * TILES_IN_WIDTH;
     public final static int GAME_HEIGHT = TILES_SIZE * TILES_IN_HEIGHT;
+    public final static ScalingStrategy SCALING = ScalingStrategy.fromName(System.getProperty("scaling"));
 
     /**
      * Constructs the Game object and initializes its components.
      */
     public Game() {
+        headless = false;
         initClasses();
         panel = new Panel(this);
         Scene scene = new Scene(panel, Game.GAME_WIDTH, Game.GAME_HEIGHT);
@@ -53,6 +59,27 @@ public class Game implements Runnable {
         scene.setOnKeyReleased(event -> keyboardInputs.handle(event));
     }
 
+    /**
+     * Constructs a Game without a window, textures or audio, containing only the playing state.
+     * Nothing runs until the caller updates the playing state.
+     *
+     * @param headless must be true
+     */
+    private Game(boolean headless) {
+        this.headless = headless;
+        audioPlayer = new AudioPlayer(false);
+        playing = new Playing(this);
+    }
+
+    /**
+     * Creates a Game for running the gameplay simulation without the JavaFX toolkit.
+     *
+     * @return the headless game
+     */
+    public static Game createHeadless() {
+        return new Game(true);
+    }
+
     /**
      * Initializes various game components.
      */
@@ -65,11 +92,12 @@ public class Game implements Runnable {
     }
 
     /**
-     * Starts the game loop in a separate thread.
+     * Starts the simulation loop in a separate thread and the rendering on the JavaFX thread.
      */
     private void startGameLoop() {
         gameLoopThread = new Thread(this);
         gameLoopThread.start();
+        panel.startRendering();
     }
 
     /**
@@ -86,56 +114,60 @@ public class Game implements Runnable {
     }
 
     /**
-     * Renders the game state based on the current GameState.
+     * Renders the game state based on the current GameState. Called on the JavaFX Application Thread.
+     * When the state changes all layers are cleared. The playing state redraws only the layers that changed
+     * and the menus only the buttons that changed, on the top layer, so a frame where nothing changed draws nothing.
      *
-     * @param g the GraphicsContext to use for rendering
+     * @param layers the canvas layers to draw on
      */
-    public void render(GraphicsContext g) {
-        switch (GameState.state) {
-            case PLAYING -> playing.draw(g);
-            case MENU -> menu.draw(g);
-            case OPTIONS -> gameOptions.draw(g);
+    public void render(CanvasLayers layers) {
+        GameState state = GameState.state;
+        if (state != renderedState) {
+            for (int i = 0; i < CanvasLayers.COUNT; i++) {
+                layers.clear(i);
+            }
+            layers.invalidateAll();
+            renderedState = state;
+        }
+        switch (state) {
+            case PLAYING -> playing.draw(layers);
+            case MENU -> menu.draw(layers, CanvasLayers.HUD);
+            case OPTIONS -> gameOptions.draw(layers, CanvasLayers.HUD);
             default -> {
             }
         }
     }
 
     /**
-     * Runs the game loop, managing the updates and rendering based on set FPS and UPS.
+     * Runs the simulation loop, updating the game at the scheduler's UPS.
+     * Between the deadlines the thread sleeps, so an idle game does not keep a core busy.
+     * Frames are drawn separately by the panel on the JavaFX Application Thread.
      */
     @Override
     public void run() {
-        double timePerFrame = 1000000000.0 / FPS_SET;
-        double timePerUpdate = 1000000000.0 / UPS_SET;
         long previousTime = System.nanoTime();
-        int frames = 0;
         int updates = 0;
         long lastCheck = System.currentTimeMillis();
         double deltaU = 0;
-        double deltaF = 0;
 
         while (true) {
+            double timePerUpdate = scheduler.getNanosPerUpdate();
             long currentTime = System.nanoTime();
             deltaU += (currentTime - previousTime) / timePerUpdate;
-            deltaF += (currentTime - previousTime) / timePerFrame;
             previousTime = currentTime;
             if (deltaU >= 1) {
                 update();
                 updates++;
                 deltaU--;
             }
-            if (deltaF >= 1) {
-                panel.render();
-                frames++;
-                deltaF--;
-            }
 
             if (System.currentTimeMillis() - lastCheck >= 1000) {
                 lastCheck = System.currentTimeMillis();
-                System.out.println("FPS: " + frames + "| UPS: " + updates);
-                frames = 0;
+                System.out.println("FPS: " + panel.takeFrameCount() + "| UPS: " + updates + "| scaling: " + SCALING);
                 updates = 0;
             }
+
+            scheduler.sleepUntil(currentTime + (long) ((1 - deltaU) * timePerUpdate));
         }
     }
 
@@ -148,6 +180,32 @@ public class Game implements Runnable {
         }
     }
 
+    /**
+     * Changes the number of updates per second of the running game loop.
+     *
+     * @param ups the new number of updates per second
+     */
+    public void setUpsTarget(int ups) {
+        scheduler.setUpsTarget(ups);
+    }
+
+    /**
+     * Changes the number of frames per second of the running game loop.
+     *
+     * @param fps the new number of frames per second
+     */
+    public void setFpsTarget(int fps) {
+        scheduler.setFpsTarget(fps);
+    }
+
+    public boolean isHeadless() {
+        return headless;
+    }
+
+    public LoopScheduler getScheduler() {
+        return scheduler;
+    }
+
     public KeyboardInputs getKeyboardInputs() {
         return keyboardInputs;
     }
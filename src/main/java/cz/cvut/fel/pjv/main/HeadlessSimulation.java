@@ -0,0 +1,87 @@
+package cz.cvut.fel.pjv.main;
+
+import cz.cvut.fel.pjv.characters.Player;
+import cz.cvut.fel.pjv.gamestates.Playing;
+
+/**
+ * Runs the gameplay simulation as fast as possible, without a window, textures, audio or the game loop thread.
+ * Useful for tests, benchmarks and profiling of the update logic.
+ */
+public class HeadlessSimulation {
+    private final Game game;
+    private final Playing playing;
+    private long ticks;
+
+    /**
+     * Constructs a HeadlessSimulation starting in the first level.
+     */
+    public HeadlessSimulation() {
+        this(0);
+    }
+
+    /**
+     * Constructs a HeadlessSimulation starting in the given level.
+     *
+     * @param levelIndex the index of the level to start in
+     */
+    public HeadlessSimulation(int levelIndex) {
+        game = Game.createHeadless();
+        playing = game.getPlaying();
+        if (levelIndex != 0) {
+            playing.loadLevel(levelIndex);
+        }
+    }
+
+    /**
+     * Advances the simulation by one tick.
+     */
+    public void step() {
+        playing.update();
+        ticks++;
+    }
+
+    /**
+     * Advances the simulation by the given number of ticks.
+     *
+     * @param count the number of ticks to run
+     */
+    public void run(long count) {
+        for (long i = 0; i < count; i++) {
+            step();
+        }
+    }
+
+    public Game getGame() {
+        return game;
+    }
+
+    public Playing getPlaying() {
+        return playing;
+    }
+
+    public Player getPlayer() {
+        return playing.getPlayer();
+    }
+
+    public long getTicks() {
+        return ticks;
+    }
+
+    /**
+     * Runs the simulation for the given number of ticks and prints the achieved tick rate.
+     *
+     * @param args optionally the number of ticks, the level index and the number of enemy update threads
+     */
+    public static void main(String[] args) {
+        long count = args.length > 0 ? Long.parseLong(args[0]) : 1_000_000L;
+        int levelIndex = args.length > 1 ? Integer.parseInt(args[1]) : 0;
+        int threads = args.length > 2 ? Integer.parseInt(args[2]) : 1;
+
+        HeadlessSimulation simulation = new HeadlessSimulation(levelIndex);
+        simulation.getPlaying().getEnemyManager().setParallelism(threads);
+        long start = System.nanoTime();
+        simulation.run(count);
+        double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+        System.out.printf("%d ticks in %.3f s (%.0f ticks/s)%n", count, seconds, count / seconds);
+    }
+}
@@ -0,0 +1,77 @@
+package cz.cvut.fel.pjv.main;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Keeps the update and frame rates of the game loop and puts the loop thread to sleep
+ * until the next deadline instead of spinning on System.nanoTime().
+ * The rates can be changed at runtime from any thread.
+ */
+public class LoopScheduler {
+    /**
+     * The last part of every wait is spun instead of parked, because parkNanos may oversleep.
+     */
+    private static final long SPIN_THRESHOLD_NANOS = 1_000_000L;
+
+    private volatile int upsTarget;
+    private volatile int fpsTarget;
+
+    /**
+     * Constructs a LoopScheduler with the given target rates.
+     *
+     * @param upsTarget the number of updates per second
+     * @param fpsTarget the number of frames per second
+     */
+    public LoopScheduler(int upsTarget, int fpsTarget) {
+        setUpsTarget(upsTarget);
+        setFpsTarget(fpsTarget);
+    }
+
+    /**
+     * Blocks the calling thread until the given System.nanoTime() deadline is reached.
+     * The thread is parked for most of the wait and only spins for the last millisecond.
+     *
+     * @param deadline the deadline in nanoseconds
+     */
+    public void sleepUntil(long deadline) {
+        long remaining = deadline - System.nanoTime();
+        while (remaining > 0) {
+            if (remaining > SPIN_THRESHOLD_NANOS) {
+                LockSupport.parkNanos(remaining - SPIN_THRESHOLD_NANOS);
+            } else {
+                Thread.onSpinWait();
+            }
+            remaining = deadline - System.nanoTime();
+        }
+    }
+
+    public double getNanosPerUpdate() {
+        return 1000000000.0 / upsTarget;
+    }
+
+    public double getNanosPerFrame() {
+        return 1000000000.0 / fpsTarget;
+    }
+
+    public int getUpsTarget() {
+        return upsTarget;
+    }
+
+    public int getFpsTarget() {
+        return fpsTarget;
+    }
+
+    public void setUpsTarget(int upsTarget) {
+        if (upsTarget <= 0) {
+            throw new IllegalArgumentException("UPS must be positive: " + upsTarget);
+        }
+        this.upsTarget = upsTarget;
+    }
+
+    public void setFpsTarget(int fpsTarget) {
+        if (fpsTarget <= 0) {
+            throw new IllegalArgumentException("FPS must be positive: " + fpsTarget);
+        }
+        this.fpsTarget = fpsTarget;
+    }
+}
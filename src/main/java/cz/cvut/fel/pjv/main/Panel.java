@@ -2,19 +2,41 @@ package cz.cvut.fel.pjv.main;
 
 import cz.cvut.fel.pjv.inputs.KeyboardInputs;
 import cz.cvut.fel.pjv.inputs.MouseInputs;
+import cz.cvut.fel.pjv.render.CanvasLayers;
+import javafx.animation.AnimationTimer;
 import javafx.scene.layout.StackPane;
-import javafx.scene.canvas.Canvas;
-import javafx.scene.canvas.GraphicsContext;
+
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * The Panel class extends StackPane and serves as the main drawing surface for the game.
- * It handles mouse and keyboard inputs, and contains the game canvas.
+ * It handles mouse and keyboard inputs, and contains the stacked canvases of the game's layers.
+ * The canvas is drawn by an AnimationTimer on the JavaFX Application Thread,
+ * following the display refresh up to the scheduler's FPS.
  */
 public class Panel extends StackPane {
     private final MouseInputs mouseInputs;
     private final KeyboardInputs keyboardInputs;
     private Game game;
-    private Canvas canvas;
+    private CanvasLayers layers;
+    private final AtomicInteger frames = new AtomicInteger();
+    private final AnimationTimer renderTimer = new AnimationTimer() {
+        private long nextFrameTime;
+
+        @Override
+        public void handle(long now) {
+            if (now < nextFrameTime) {
+                return;
+            }
+            long timePerFrame = (long) game.getScheduler().getNanosPerFrame();
+            nextFrameTime += timePerFrame;
+            if (nextFrameTime < now - timePerFrame) {
+                nextFrameTime = now;
+            }
+            render();
+            frames.incrementAndGet();
+        }
+    };
 
     public Panel(Game game) {
         mouseInputs = new MouseInputs(this);
@@ -24,27 +46,41 @@ public class Panel extends StackPane {
     }
 
     /**
-     * Sets up the canvas, configures its size, and binds mouse event handlers.
+     * Sets up the stacked canvases of the layers and binds mouse event handlers.
+     * The mouse handlers are bound to the panel, which keeps the game's coordinates with every scaling strategy.
      */
     private void setCanvas() {
-        canvas = new Canvas();
-        canvas.setWidth(Game.GAME_WIDTH);
-        canvas.setHeight(Game.GAME_HEIGHT);
-        canvas.setFocusTraversable(true);
+        layers = new CanvasLayers();
+        setFocusTraversable(true);
+
+        setOnMouseClicked(mouseInputs);
+        setOnMouseMoved(mouseInputs);
+        setOnMouseDragged(mouseInputs);
+
+        getChildren().addAll(layers.getCanvases());
+    }
 
-        canvas.setOnMouseClicked(mouseInputs);
-        canvas.setOnMouseMoved(mouseInputs);
-        canvas.setOnMouseDragged(mouseInputs);
+    /**
+     * Starts drawing frames on the JavaFX Application Thread.
+     */
+    public void startRendering() {
+        renderTimer.start();
+    }
 
-        getChildren().add(canvas);
+    /**
+     * Returns the number of frames drawn since the last call and resets the counter.
+     *
+     * @return the number of drawn frames
+     */
+    public int takeFrameCount() {
+        return frames.getAndSet(0);
     }
 
     /**
-     * Renders the game by drawing on the canvas's GraphicsContext.
+     * Renders the game by redrawing the layers whose content changed. Must be called on the JavaFX Application Thread.
      */
     public void render() {
-        GraphicsContext gc = canvas.getGraphicsContext2D();
-        game.render(gc);
+        game.render(layers);
     }
 
     public Game getGame() {
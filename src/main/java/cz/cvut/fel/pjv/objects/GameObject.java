@@ -1,67 +1,56 @@
 package cz.cvut.fel.pjv.objects;
 
-import cz.cvut.fel.pjv.main.Game;
+import cz.cvut.fel.pjv.utils.AABB;
 import javafx.scene.canvas.GraphicsContext;
 import javafx.scene.paint.Color;
-import javafx.scene.shape.Rectangle;
-
-import static cz.cvut.fel.pjv.utils.Constants.*;
-import static cz.cvut.fel.pjv.utils.Constants.ObjectConstants.*;
 
 /**
- * Represents a generic game object with common properties and methods.
+ * A view of a single object kept in an ObjectStore.
+ * The game itself works on the store directly; this class offers the per-object API
+ * for code that only deals with one object at a time.
  */
 public class GameObject {
 
-    protected int x, y, objectType;
-    protected Rectangle hitBox;
-    protected boolean doAnimation, active = true;
-    protected int animTick, animIndex;
+    protected final ObjectStore store;
+    protected final int id;
     protected int xDrawOffset, yDrawOffset;
 
     /**
-     * Constructs a GameObject with the specified position and type.
+     * Constructs a GameObject in its own store with the specified position and type.
      *
      * @param x the x-coordinate of the object
      * @param y the y-coordinate of the object
      * @param objectType the type of the object
      */
     public GameObject(int x, int y, int objectType) {
-        this.x = x;
-        this.y = y;
-        this.objectType = objectType;
+        this.store = new ObjectStore(1);
+        this.id = store.add(objectType, x, y);
+        xDrawOffset = store.getxDrawOffset(id);
+        yDrawOffset = store.getyDrawOffset(id);
+    }
+
+    /**
+     * Updates the object according to its type.
+     * A standalone object has its own animation clock, which moves by one tick per update.
+     */
+    public void update() {
+        store.update(id);
+        store.getClock().tick();
     }
 
     /**
-     * Updates the animation state of the object.
+     * Ends a finished animation and moves the object's animation clock by one tick.
      */
     protected void updateAnimation() {
-        animTick++;
-        if (animTick >= ANIMATION_SPEED) {
-            animTick = 0;
-            animIndex++;
-            if (animIndex >= getSpriteAmount(objectType)) {
-                animIndex = 0;
-                if (objectType == BARREL || objectType == BOX) {
-                    doAnimation = false;
-                    active = false;
-                }
-            }
-        }
+        store.updateAnimation(id);
+        store.getClock().tick();
     }
 
     /**
      * Resets the object's animation and state.
      */
     public void reset() {
-        animTick = 0;
-        animIndex = 0;
-        active = true;
-        if (objectType == BARREL || objectType == BOX) {
-            doAnimation = false;
-        } else {
-            doAnimation = true;
-        }
+        store.reset(id);
     }
 
     /**
@@ -71,7 +60,7 @@ public class GameObject {
      * @param height the height of the hitbox
      */
     protected void initHitBox(double width, double height) {
-        hitBox = new Rectangle(x, y, width * Game.SCALE, height * Game.SCALE);
+        store.setHitBox(id, width, height);
     }
 
     /**
@@ -83,7 +72,15 @@ public class GameObject {
     protected void drawHitBox(GraphicsContext gc, int xlevelOffset) {
         Color translucent = new Color(0.5, 0.7, 0.7, 0.5);
         gc.setStroke(translucent);
-        gc.strokeRect(hitBox.getX() - xlevelOffset, hitBox.getY(), hitBox.getWidth(), hitBox.getHeight());
+        gc.strokeRect(store.getX(id) - xlevelOffset, store.getY(id), store.getWidth(id), store.getHeight(id));
+    }
+
+    public double getPrevHitBoxX() {
+        return store.getPrevX(id);
+    }
+
+    public double getPrevHitBoxY() {
+        return store.getPrevY(id);
     }
 
     public int getyDrawOffset() {
@@ -95,34 +92,39 @@ public class GameObject {
     }
 
     public int getObjectType() {
-        return objectType;
+        return store.getType(id);
     }
 
     public void setObjectType(int objectType) {
-        this.objectType = objectType;
+        store.setType(id, objectType);
     }
 
     public void setDoAnimation(boolean doAnimation) {
-        this.doAnimation = doAnimation;
+        store.setDoAnimation(id, doAnimation);
     }
 
     public boolean isActive() {
-        return active;
+        return store.isActive(id);
     }
 
     public void setActive(boolean active) {
-        this.active = active;
+        store.setActive(id, active);
     }
 
-    public Rectangle getHitBox() {
-        return hitBox;
+    /**
+     * Returns a copy of the object's hitbox.
+     *
+     * @return the hitbox of the object
+     */
+    public AABB getHitBox() {
+        return new AABB(store.getX(id), store.getY(id), store.getWidth(id), store.getHeight(id));
     }
 
     public int getAnimIndex() {
-        return animIndex;
+        return store.getAnimIndex(id);
     }
 
     public boolean isDoAnimation() {
-        return doAnimation;
+        return store.isDoAnimation(id);
     }
 }
@@ -1,184 +1,301 @@
 package cz.cvut.fel.pjv.objects;
 
 import cz.cvut.fel.pjv.characters.Player;
+import cz.cvut.fel.pjv.effects.ParticleSystem;
 import cz.cvut.fel.pjv.gamestates.Playing;
 import cz.cvut.fel.pjv.levels.Level;
+import cz.cvut.fel.pjv.main.Game;
+import cz.cvut.fel.pjv.render.RenderQueue;
+import cz.cvut.fel.pjv.render.RenderSnapshot;
+import cz.cvut.fel.pjv.render.SpriteList;
+import cz.cvut.fel.pjv.render.SpriteRegion;
+import cz.cvut.fel.pjv.utils.AABB;
+import cz.cvut.fel.pjv.utils.ActiveList;
+import cz.cvut.fel.pjv.utils.ActivityRegion;
 import cz.cvut.fel.pjv.utils.LoadSave;
-import javafx.scene.canvas.GraphicsContext;
-import javafx.scene.image.Image;
-import javafx.scene.image.WritableImage;
-import javafx.scene.shape.Rectangle;
+import cz.cvut.fel.pjv.utils.SpatialGrid;
 
-import java.util.ArrayList;
+import java.util.Arrays;
 
 import static cz.cvut.fel.pjv.utils.Constants.ObjectConstants.*;
 
 public class ObjectManager {
     private Playing playing;
-    private Image[][] containerImage, potionImage, starImage;
-    private Image spikeImage;
-    private ArrayList<Potion> potions;
-    private ArrayList<GameContainer> containers;
-    private ArrayList<Spike> spikes;
-    private ArrayList<Star> stars;
-    public boolean isAnyActiveStar;
+    private SpriteRegion[][] containerImage, potionImage, starImage;
+    private SpriteRegion spikeImage;
+    private final ObjectStore objects = new ObjectStore(64);
+    private final SpatialGrid objectGrid = new SpatialGrid(Game.TILES_SIZE);
+    private final ActiveList alive = new ActiveList(64);
+    private final ActiveList collected = new ActiveList(16);
+    private int[] awake = new int[64];
+    private int awakeCount;
+    private int activeStars;
 
     public ObjectManager(Playing playing) {
         this.playing = playing;
-        loadImages();
+        objects.setClock(playing.getAnimationClock());
+        if (!playing.isHeadless()) {
+            loadImages();
+        }
     }
 
+    /**
+     * Loads the objects of a level. The manager plays on a copy, so the level keeps its spawn state.
+     * Only active objects are put into the alive list and the grid.
+     */
     public void loadObjects(Level nextLevel) {
-        potions = new ArrayList<>(nextLevel.getPotions());
-        containers = new ArrayList<>(nextLevel.getContainers());
-        spikes = new ArrayList<>(nextLevel.getSpikes());
-        stars = new ArrayList<>(nextLevel.getStars());
-    }
-
-    private void loadImages() {
-        Image potionSprites = LoadSave.getSpriteAtlas(LoadSave.potionSprites);
-        potionImage = new Image[1][7];
-        for (int j = 0; j < potionImage.length; j++) {
-            for (int i = 0; i < potionImage[j].length; i++) {
-                potionImage[j][i] = new WritableImage(potionSprites.getPixelReader(), 12 * i, 15 * j, 12, 15);
+        objects.copyFrom(nextLevel.getObjects());
+        objectGrid.resize(nextLevel.getTileMap().getWidth());
+        alive.clear();
+        collected.clear();
+        activeStars = 0;
+        for (int id = 0; id < objects.size(); id++) {
+            if (objects.isActive(id)) {
+                addAlive(id);
             }
         }
+        awakeCount = 0;
+    }
 
-        Image containerSprite = LoadSave.getSpriteAtlas(LoadSave.boxSprites);
-        containerImage = new Image[2][8];
-        for (int j = 0; j < containerImage.length; j++) {
-            for (int i = 0; i < containerImage[j].length; i++) {
-                containerImage[j][i] = new WritableImage(containerSprite.getPixelReader(), 40 * i, 30 * j, 40, 30);
-            }
+    private void addAlive(int id) {
+        alive.add(id);
+        moveInGrid(id);
+        if (objects.getType(id) == STAR) {
+            activeStars++;
         }
+    }
 
-        Image hammerSprites = LoadSave.getSpriteAtlas(LoadSave.starAtlas);
-        starImage = new Image[1][7];
-        for (int j = 0; j < starImage.length; j++) {
-            for (int i = 0; i < starImage[j].length; i++) {
-                starImage[j][i] = new WritableImage(hammerSprites.getPixelReader(), 16 * i, 16 * j, 16, 16);
+    /**
+     * Drops an object that became inactive from the alive list and the grid.
+     */
+    private void removeAlive(int id) {
+        if (alive.remove(id)) {
+            objectGrid.remove(id);
+            if (objects.getType(id) == STAR) {
+                activeStars--;
             }
         }
+    }
+
+    /**
+     * Updates the cells of an object in the grid. An object's id in the grid is its id in the store.
+     */
+    private void moveInGrid(int id) {
+        objectGrid.move(id, objects.getX(id), objects.getY(id), objects.getWidth(id), objects.getHeight(id));
+    }
 
-        spikeImage = LoadSave.getSpriteAtlas(LoadSave.trapAtlas);
+    private void loadImages() {
+        potionImage = LoadSave.getFrames(LoadSave.potionSprites);
+        containerImage = LoadSave.getFrames(LoadSave.boxSprites);
+        starImage = LoadSave.getFrames(LoadSave.starAtlas);
+        spikeImage = LoadSave.getSprite(LoadSave.trapAtlas);
     }
 
 
-    public void update() {
-        isAnyActiveStar = false;
-        for (Potion p : potions) {
-            if (p.active){
-                p.update();
+    /**
+     * Updates the active objects inside the activity region. The objects outside of it sleep and keep their state.
+     * Containers that finish breaking are dropped from the alive list and the grid.
+     */
+    public void update(ActivityRegion region) {
+        releaseCollected();
+        findAwakeObjects(region);
+        for (int i = 0; i < awakeCount; i++) {
+            int id = awake[i];
+            if (objects.isActive(id)) {
+                objects.update(id);
+                int type = objects.getType(id);
+                if (!objects.isActive(id)) {
+                    removeAlive(id);
+                } else if (type == HEALTH_POTION || type == STAR) {
+                    moveInGrid(id);
+                }
             }
         }
-        for (GameContainer c : containers) {
-            if (c.active){
-                c.update();
+    }
+
+    /**
+     * Gives the slots of the potions collected in the last tick back to the store.
+     * This waits for the next tick, because the last snapshot may still list the collected potions as awake.
+     */
+    private void releaseCollected() {
+        for (int i = 0; i < collected.size(); i++) {
+            objects.release(collected.get(i));
+        }
+        collected.clear();
+    }
+
+    /**
+     * Collects the ids of the active objects whose hitbox touches the activity region, in ascending order.
+     */
+    private void findAwakeObjects(ActivityRegion region) {
+        awakeCount = 0;
+        if (region.getColumnCount(Game.TILES_SIZE) > alive.size()) {
+            // With more columns in the region than alive objects, scanning the alive list is cheaper
+            if (awake.length < alive.size()) {
+                awake = new int[alive.size()];
+            }
+            for (int i = 0; i < alive.size(); i++) {
+                int id = alive.get(i);
+                if (isAwake(id, region)) {
+                    awake[awakeCount++] = id;
+                }
             }
+            Arrays.sort(awake, 0, awakeCount);
+            return;
+        }
+        int found = objectGrid.query(region.getX(), region.getY(), region.getWidth(), region.getHeight());
+        if (awake.length < found) {
+            awake = new int[Math.max(found, awake.length * 2)];
         }
-        for (Star h : stars) {
-            if (h.active){
-                h.update();
-                isAnyActiveStar = true;
+        for (int i = 0; i < found; i++) {
+            int id = objectGrid.getQueryResult(i);
+            if (isAwake(id, region)) {
+                awake[awakeCount++] = id;
             }
         }
+        // Keep the update and draw order in id order, independent of the order of the columns and of swap-removals
+        Arrays.sort(awake, 0, awakeCount);
     }
 
-    public void draw(GraphicsContext gc, int xLevelOffset) {
-        drawPotions(gc, xLevelOffset);
-        drawContainers(gc, xLevelOffset);
-        drawTraps(gc, xLevelOffset);
-        drawStars(gc, xLevelOffset);
+    private boolean isAwake(int id, ActivityRegion region) {
+        return region.intersects(objects.getX(id), objects.getY(id), objects.getWidth(id), objects.getHeight(id));
     }
 
-    private void drawStars(GraphicsContext gc, int xLevelOffset) {
-        for (Star s : stars) {
-            if (s.active){
-                gc.drawImage(starImage[0][s.getAnimIndex()], (int) (s.getHitBox().getX() + s.getxDrawOffset() - xLevelOffset), (int) (s.getHitBox().getY() + s.getyDrawOffset()), STAR_WIDTH, STAR_HEIGHT);
-            }
+    /**
+     * Adds an object created during this tick to the awake objects, so it is drawn right away.
+     * The object may reuse a released slot with a low id, so it is inserted in order.
+     */
+    private void wake(int id) {
+        if (awakeCount == awake.length) {
+            awake = Arrays.copyOf(awake, awakeCount * 2);
         }
-    }
-
-    private void drawTraps(GraphicsContext gc, int xLevelOffset) {
-        for (Spike s : spikes) {
-            gc.drawImage(spikeImage, (int) (s.getHitBox().getX() - s.getxDrawOffset() - xLevelOffset), (int) (s.getHitBox().getY() - s.getyDrawOffset()), SPIKE_WIDTH, SPIKE_HEIGHT);
+        int i = awakeCount++;
+        while (i > 0 && awake[i - 1] > id) {
+            awake[i] = awake[i - 1];
+            i--;
         }
+        awake[i] = id;
     }
 
-    private void drawContainers(GraphicsContext gc, int xLevelOffset) {
-        for (GameContainer c : containers) {
-            if (c.active){
-                int type = 0;
-                if (c.getObjectType() == BARREL)
-                    type = 1;
-                gc.drawImage(containerImage[type][c.getAnimIndex()], (int) (c.getHitBox().getX() - c.getxDrawOffset() - xLevelOffset), (int) (c.getHitBox().getY() - c.getyDrawOffset()), CONTAINER_WIDTH, CONTAINER_HEIGHT);
+    public void writeSnapshot(RenderSnapshot snapshot) {
+        SpriteList sprites = snapshot.getObjects();
+        for (int i = 0; i < awakeCount; i++) {
+            int id = awake[i];
+            int type = objects.getType(id);
+            if (!objects.isActive(id) && type != SPIKE) {
+                continue;
             }
+            // Stars are drawn right of and below their hitbox, everything else left of and above it
+            int xOffset = type == STAR ? -objects.getxDrawOffset(id) : objects.getxDrawOffset(id);
+            int yOffset = type == STAR ? -objects.getyDrawOffset(id) : objects.getyDrawOffset(id);
+            int animIndex = type == SPIKE ? 0 : objects.getAnimIndex(id);
+            sprites.add(type, 0, animIndex, false, objects.getPrevX(id) - xOffset, objects.getPrevY(id) - yOffset,
+                    objects.getX(id) - xOffset, objects.getY(id) - yOffset);
         }
     }
 
-    private void drawPotions(GraphicsContext gc, int xLevelOffset) {
-        for (Potion p : potions) {
-            if (p.active){
-                gc.drawImage(potionImage[0][p.getAnimIndex()], (int) (p.getHitBox().getX() - p.getxDrawOffset() - xLevelOffset), (int) (p.getHitBox().getY() - p.getyDrawOffset()), POTION_WIDTH, POTION_HEIGHT);
+    /**
+     * Submits the objects of a render snapshot to the render queue.
+     *
+     * @param queue the render queue to submit to
+     * @param snapshot the snapshot to draw
+     * @param alpha the fraction of the tick elapsed since the snapshot, used to blend positions
+     */
+    public void draw(RenderQueue queue, RenderSnapshot snapshot, double alpha) {
+        SpriteList sprites = snapshot.getObjects();
+        int xLevelOffset = snapshot.getXLevelOffset(alpha);
+        for (int i = 0; i < sprites.size(); i++) {
+            int x = (int) (sprites.getX(i, alpha) - xLevelOffset);
+            int y = (int) sprites.getY(i, alpha);
+            switch (sprites.getType(i)) {
+                case HEALTH_POTION -> queue.submit(RenderQueue.OBJECTS, potionImage[0][sprites.getAnimIndex(i)], x, y, POTION_WIDTH, POTION_HEIGHT);
+                case BARREL -> queue.submit(RenderQueue.OBJECTS, containerImage[1][sprites.getAnimIndex(i)], x, y, CONTAINER_WIDTH, CONTAINER_HEIGHT);
+                case BOX -> queue.submit(RenderQueue.OBJECTS, containerImage[0][sprites.getAnimIndex(i)], x, y, CONTAINER_WIDTH, CONTAINER_HEIGHT);
+                case SPIKE -> queue.submit(RenderQueue.OBJECTS, spikeImage, x, y, SPIKE_WIDTH, SPIKE_HEIGHT);
+                case STAR -> queue.submit(RenderQueue.OBJECTS, starImage[0][sprites.getAnimIndex(i)], x, y, STAR_WIDTH, STAR_HEIGHT);
+                default -> {
+                }
             }
         }
     }
 
     public void checkSpikeTouched(Player player) {
-        for (Spike s : spikes) {
-            if (s.getHitBox().intersects(player.getHitBox().getX(), player.getHitBox().getY(), player.getHitBox().getWidth(), player.getHitBox().getHeight())) {
+        AABB hitBox = player.getHitBox();
+        int found = objectGrid.query(hitBox.getX(), hitBox.getY(), hitBox.getWidth(), hitBox.getHeight());
+        for (int i = 0; i < found; i++) {
+            int id = objectGrid.getQueryResult(i);
+            if (objects.getType(id) == SPIKE && objects.intersects(id, hitBox)) {
                 player.kill();
             }
         }
     }
 
-    public void checkObjectTouched(Rectangle hitBox) {
-        for (Potion p : potions) {
-            if (p.active){
-                if (hitBox.intersects(p.getHitBox().getX(), p.getHitBox().getY(), p.getHitBox().getWidth(), p.getHitBox().getHeight())) {
-                    p.setActive(false);
-                    applyEffectOnPlayer(p);
-                }
-            }
-        }
-        for (Star s : stars) {
-            if (s.active) {
-                if (hitBox.intersects(s.getHitBox().getX(), s.getHitBox().getY(), s.getHitBox().getWidth(), s.getHitBox().getHeight())) {
-                    s.setActive(false);
+    public void checkObjectTouched(AABB hitBox) {
+        int found = objectGrid.query(hitBox.getX(), hitBox.getY(), hitBox.getWidth(), hitBox.getHeight());
+        for (int i = 0; i < found; i++) {
+            int id = objectGrid.getQueryResult(i);
+            int type = objects.getType(id);
+            if ((type == HEALTH_POTION || type == STAR) && objects.isActive(id)) {
+                if (objects.intersects(id, hitBox)) {
+                    objects.setActive(id, false);
+                    removeAlive(id);
+                    emit(ParticleSystem.PICKUP, id, 16);
+                    if (type == HEALTH_POTION) {
+                        collected.add(id);
+                        applyEffectOnPlayer();
+                    }
                 }
             }
         }
     }
 
-    public void applyEffectOnPlayer(Potion p) {
+    public void applyEffectOnPlayer() {
         playing.getPlayer().changeHealth(HEALTH_POTION_VALUE);
     }
 
-    public void checkObjectHit(Rectangle attackBox) {
-        for (GameContainer c : containers) {
-            if (c.active && !c.doAnimation){
-                if (c.getHitBox().intersects(attackBox.getX(), attackBox.getY(), attackBox.getWidth(), attackBox.getHeight())) {
-                    c.setDoAnimation(true);
-                    int type = 0;
-                    if (c.getObjectType() == BARREL)
-                        type = 1;
-                    potions.add(new Potion((int) (c.getHitBox().getX() + c.getHitBox().getWidth() / 2), (int) (c.getHitBox().getY() - c.getHitBox().getHeight() / 4), HEALTH_POTION));
-                    return;
+    public void checkObjectHit(AABB attackBox) {
+        int hit = -1;
+        int found = objectGrid.query(attackBox.getX(), attackBox.getY(), attackBox.getWidth(), attackBox.getHeight());
+        for (int i = 0; i < found; i++) {
+            int id = objectGrid.getQueryResult(i);
+            int type = objects.getType(id);
+            if ((type == BOX || type == BARREL) && objects.isActive(id) && !objects.isDoAnimation(id) && (hit < 0 || id < hit)) {
+                if (objects.intersects(id, attackBox)) {
+                    hit = id;
                 }
             }
         }
+        if (hit >= 0) {
+            objects.setDoAnimation(hit, true);
+            emit(ParticleSystem.BREAK, hit, 20);
+            int potion = objects.spawn(HEALTH_POTION, (int) (objects.getX(hit) + objects.getWidth(hit) / 2), (int) (objects.getY(hit) - objects.getHeight(hit) / 4));
+            addAlive(potion);
+            wake(potion);
+        }
+    }
+
+    /**
+     * Emits a burst of particles from the center of an object.
+     */
+    private void emit(int particleKind, int id, int amount) {
+        playing.getParticles().emit(particleKind, objects.getX(id) + objects.getWidth(id) / 2, objects.getY(id) + objects.getHeight(id) / 2, amount);
     }
 
     public void resetAllObjects() {
         loadObjects(playing.getLevelManager().getCurrentLevel());
-        for (GameContainer c : containers) {
-            c.reset();
-        }
-        for (Potion p : potions) {
-            p.reset();
-        }
-        for (Star s : stars) {
-            s.reset();
+        for (int id = 0; id < objects.size(); id++) {
+            objects.reset(id);
         }
     }
+
+    /**
+     * Returns the number of stars that are still to be collected.
+     */
+    public int getRemainingStars() {
+        return activeStars;
+    }
+
+    public ObjectStore getObjects() {
+        return objects;
+    }
 }
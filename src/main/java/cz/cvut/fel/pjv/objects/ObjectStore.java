@@ -0,0 +1,430 @@
+package cz.cvut.fel.pjv.objects;
+
+import cz.cvut.fel.pjv.main.Game;
+import cz.cvut.fel.pjv.utils.AABB;
+import cz.cvut.fel.pjv.utils.AnimationClock;
+import cz.cvut.fel.pjv.utils.SlotPool;
+
+import java.util.Arrays;
+
+import static cz.cvut.fel.pjv.utils.Constants.ObjectConstants.*;
+
+/**
+ * Holds the state of all objects of a level (potions, containers, spikes and stars)
+ * in parallel primitive arrays indexed by the object id.
+ * The ids are dense, from 0 to size() - 1. Level objects are appended; objects spawned during play
+ * reuse the slots of released objects, so the store stops growing once a level has warmed up.
+ * Animation frames are derived from the time each animation started on an AnimationClock.
+ */
+public class ObjectStore {
+    private static final int MAX_HOVER_OFFSET = (int) (10 * Game.SCALE);
+    private static final double HOVER_SPEED = 0.075d * Game.SCALE;
+
+    private int size;
+    private int[] type;
+    private int[] spawnX, spawnY;
+    private double[] x, y, width, height;
+    private double[] prevX, prevY;
+    private int[] xDrawOffset, yDrawOffset;
+    private boolean[] active, doAnimation;
+    private long[] animStart, animTime;
+    private double[] hoverOffset;
+    private int[] hoverDirection;
+    private final SlotPool freeSlots = new SlotPool(16);
+    private AnimationClock clock = new AnimationClock();
+
+    /**
+     * Constructs an empty ObjectStore with the given initial capacity.
+     *
+     * @param capacity the initial capacity
+     */
+    public ObjectStore(int capacity) {
+        capacity = Math.max(1, capacity);
+        type = new int[capacity];
+        spawnX = new int[capacity];
+        spawnY = new int[capacity];
+        x = new double[capacity];
+        y = new double[capacity];
+        width = new double[capacity];
+        height = new double[capacity];
+        prevX = new double[capacity];
+        prevY = new double[capacity];
+        xDrawOffset = new int[capacity];
+        yDrawOffset = new int[capacity];
+        active = new boolean[capacity];
+        doAnimation = new boolean[capacity];
+        animStart = new long[capacity];
+        animTime = new long[capacity];
+        hoverOffset = new double[capacity];
+        hoverDirection = new int[capacity];
+    }
+
+    /**
+     * Grows all arrays to at least the given capacity.
+     */
+    private void ensureCapacity(int capacity) {
+        if (capacity <= type.length) {
+            return;
+        }
+        capacity = Math.max(capacity, type.length * 2);
+        type = Arrays.copyOf(type, capacity);
+        spawnX = Arrays.copyOf(spawnX, capacity);
+        spawnY = Arrays.copyOf(spawnY, capacity);
+        x = Arrays.copyOf(x, capacity);
+        y = Arrays.copyOf(y, capacity);
+        width = Arrays.copyOf(width, capacity);
+        height = Arrays.copyOf(height, capacity);
+        prevX = Arrays.copyOf(prevX, capacity);
+        prevY = Arrays.copyOf(prevY, capacity);
+        xDrawOffset = Arrays.copyOf(xDrawOffset, capacity);
+        yDrawOffset = Arrays.copyOf(yDrawOffset, capacity);
+        active = Arrays.copyOf(active, capacity);
+        doAnimation = Arrays.copyOf(doAnimation, capacity);
+        animStart = Arrays.copyOf(animStart, capacity);
+        animTime = Arrays.copyOf(animTime, capacity);
+        hoverOffset = Arrays.copyOf(hoverOffset, capacity);
+        hoverDirection = Arrays.copyOf(hoverDirection, capacity);
+    }
+
+    /**
+     * Adds an object at the given position. The hitbox and the draw offsets are set up by the object type.
+     * Other types get no hitbox.
+     *
+     * @param objectType the type of the object
+     * @param spawnX the x-coordinate of the object
+     * @param spawnY the y-coordinate of the object
+     * @return the id of the new object
+     */
+    public int add(int objectType, int spawnX, int spawnY) {
+        ensureCapacity(size + 1);
+        int id = size++;
+        init(id, objectType, spawnX, spawnY);
+        return id;
+    }
+
+    /**
+     * Spawns an object during play. The object takes the slot of a released object if there is one
+     * and is appended otherwise.
+     *
+     * @param objectType the type of the object
+     * @param spawnX the x-coordinate of the object
+     * @param spawnY the y-coordinate of the object
+     * @return the id of the spawned object
+     */
+    public int spawn(int objectType, int spawnX, int spawnY) {
+        int id = freeSlots.acquire();
+        if (id < 0) {
+            return add(objectType, spawnX, spawnY);
+        }
+        init(id, objectType, spawnX, spawnY);
+        return id;
+    }
+
+    /**
+     * Deactivates an object and gives its slot to the next spawned object.
+     * The id must not be used afterwards, so the caller has to drop it from its own lists first.
+     *
+     * @param id the id of the object
+     */
+    public void release(int id) {
+        active[id] = false;
+        doAnimation[id] = false;
+        freeSlots.release(id);
+    }
+
+    /**
+     * Sets all fields of a slot for a new object.
+     */
+    private void init(int id, int objectType, int spawnX, int spawnY) {
+        type[id] = objectType;
+        this.spawnX[id] = spawnX;
+        this.spawnY[id] = spawnY;
+        active[id] = true;
+        startAnimation(id, clock.getTime());
+        hoverOffset[id] = 0;
+        hoverDirection[id] = 1;
+        initObject(id);
+    }
+
+    /**
+     * Sets the hitbox, the draw offsets and the animation flag of an object from its type.
+     */
+    private void initObject(int id) {
+        xDrawOffset[id] = 0;
+        yDrawOffset[id] = 0;
+        doAnimation[id] = false;
+        switch (type[id]) {
+            case HEALTH_POTION -> {
+                doAnimation[id] = true;
+                setHitBox(id, 7, 14);
+                xDrawOffset[id] = (int) (5 * Game.SCALE);
+                yDrawOffset[id] = (int) (2 * Game.SCALE);
+            }
+            case STAR -> {
+                doAnimation[id] = true;
+                setHitBox(id, 14, 14);
+                xDrawOffset[id] = (int) (6 * Game.SCALE);
+                yDrawOffset[id] = (int) (3 * Game.SCALE);
+            }
+            case BOX, BARREL -> {
+                if (type[id] == BOX) {
+                    setHitBox(id, 25, 18);
+                    xDrawOffset[id] = (int) (7 * Game.SCALE);
+                    yDrawOffset[id] = (int) (12 * Game.SCALE);
+                } else {
+                    setHitBox(id, 23, 25);
+                    xDrawOffset[id] = (int) (8 * Game.SCALE);
+                    yDrawOffset[id] = (int) (5 * Game.SCALE);
+                }
+                y[id] += yDrawOffset[id] + (int) (2 * Game.SCALE);
+                x[id] += xDrawOffset[id] / 2;
+                prevX[id] = x[id];
+                prevY[id] = y[id];
+            }
+            case SPIKE -> {
+                setHitBox(id, 32, 11);
+                yDrawOffset[id] = (int) (22 * Game.SCALE);
+                y[id] += yDrawOffset[id];
+                prevY[id] = y[id];
+            }
+            default -> setHitBox(id, 0, 0);
+        }
+    }
+
+    /**
+     * Places the hitbox of an object at its spawn position with the given unscaled size.
+     *
+     * @param id the id of the object
+     * @param width the width of the hitbox before scaling
+     * @param height the height of the hitbox before scaling
+     */
+    public void setHitBox(int id, double width, double height) {
+        x[id] = spawnX[id];
+        y[id] = spawnY[id];
+        this.width[id] = width * Game.SCALE;
+        this.height[id] = height * Game.SCALE;
+        prevX[id] = x[id];
+        prevY[id] = y[id];
+    }
+
+    /**
+     * Replaces the content of this store with a copy of another store.
+     * Levels keep their objects in a store that is never updated and the object manager plays on a copy.
+     *
+     * @param other the store to copy
+     */
+    public void copyFrom(ObjectStore other) {
+        size = 0;
+        freeSlots.clear();
+        ensureCapacity(other.size);
+        int n = other.size;
+        System.arraycopy(other.type, 0, type, 0, n);
+        System.arraycopy(other.spawnX, 0, spawnX, 0, n);
+        System.arraycopy(other.spawnY, 0, spawnY, 0, n);
+        System.arraycopy(other.x, 0, x, 0, n);
+        System.arraycopy(other.y, 0, y, 0, n);
+        System.arraycopy(other.width, 0, width, 0, n);
+        System.arraycopy(other.height, 0, height, 0, n);
+        System.arraycopy(other.prevX, 0, prevX, 0, n);
+        System.arraycopy(other.prevY, 0, prevY, 0, n);
+        System.arraycopy(other.xDrawOffset, 0, xDrawOffset, 0, n);
+        System.arraycopy(other.yDrawOffset, 0, yDrawOffset, 0, n);
+        System.arraycopy(other.active, 0, active, 0, n);
+        System.arraycopy(other.doAnimation, 0, doAnimation, 0, n);
+        System.arraycopy(other.animStart, 0, animStart, 0, n);
+        System.arraycopy(other.animTime, 0, animTime, 0, n);
+        System.arraycopy(other.hoverOffset, 0, hoverOffset, 0, n);
+        System.arraycopy(other.hoverDirection, 0, hoverDirection, 0, n);
+        size = n;
+    }
+
+    /**
+     * Updates an active object: potions and stars hover, containers disappear once their breaking animation is over.
+     * The looping animations of potions and stars need no update.
+     *
+     * @param id the id of the object
+     */
+    public void update(int id) {
+        switch (type[id]) {
+            case HEALTH_POTION, STAR -> {
+                prevX[id] = x[id];
+                prevY[id] = y[id];
+                resumeAnimation(id);
+                updateHover(id);
+            }
+            case BOX, BARREL -> {
+                if (doAnimation[id]) {
+                    updateAnimation(id);
+                }
+            }
+            default -> {
+            }
+        }
+    }
+
+    /**
+     * Marks the animation of an object as run until the end of the current tick.
+     */
+    private void resumeAnimation(int id) {
+        animStart[id] = getAnimStart(id);
+        animTime[id] = clock.getStepTime();
+    }
+
+    /**
+     * Returns the start of an object's animation, moved by the time the object slept since its last update,
+     * as its animation only runs in the ticks it is updated.
+     */
+    private long getAnimStart(int id) {
+        return animStart[id] + clock.getTime() - animTime[id];
+    }
+
+    private void startAnimation(int id, long start) {
+        animStart[id] = start;
+        animTime[id] = start;
+    }
+
+    /**
+     * Runs the animation of an object for the current tick. A container whose animation has played once disappears.
+     *
+     * @param id the id of the object
+     */
+    public void updateAnimation(int id) {
+        resumeAnimation(id);
+        if ((type[id] == BARREL || type[id] == BOX) && clock.isFinished(animStart[id], getSpriteAmount(type[id]))) {
+            doAnimation[id] = false;
+            active[id] = false;
+        }
+    }
+
+    /**
+     * Moves a hovering object up and down around its spawn position.
+     */
+    private void updateHover(int id) {
+        hoverOffset[id] += HOVER_SPEED * hoverDirection[id];
+        if (hoverOffset[id] >= MAX_HOVER_OFFSET) {
+            hoverDirection[id] = -1;
+        } else if (hoverOffset[id] < 0) {
+            hoverDirection[id] = 1;
+        }
+        y[id] = spawnY[id] + hoverOffset[id];
+    }
+
+    /**
+     * Resets the animation and the active flag of an object.
+     *
+     * @param id the id of the object
+     */
+    public void reset(int id) {
+        startAnimation(id, clock.getTime());
+        active[id] = true;
+        doAnimation[id] = type[id] != BARREL && type[id] != BOX;
+    }
+
+    /**
+     * Checks if a box overlaps the hitbox of an object, edges included.
+     *
+     * @param id the id of the object
+     * @param box the box to test
+     * @return true if they overlap, false otherwise
+     */
+    public boolean intersects(int id, AABB box) {
+        return box.intersects(x[id], y[id], width[id], height[id]);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int getType(int id) {
+        return type[id];
+    }
+
+    public void setType(int id, int objectType) {
+        type[id] = objectType;
+    }
+
+    public double getX(int id) {
+        return x[id];
+    }
+
+    public double getY(int id) {
+        return y[id];
+    }
+
+    public double getWidth(int id) {
+        return width[id];
+    }
+
+    public double getHeight(int id) {
+        return height[id];
+    }
+
+    public double getPrevX(int id) {
+        return prevX[id];
+    }
+
+    public double getPrevY(int id) {
+        return prevY[id];
+    }
+
+    public int getxDrawOffset(int id) {
+        return xDrawOffset[id];
+    }
+
+    public int getyDrawOffset(int id) {
+        return yDrawOffset[id];
+    }
+
+    /**
+     * Returns the frame of an object's animation at the current time of the clock.
+     * Containers show their first frame until they are broken.
+     *
+     * @param id the id of the object
+     * @return the frame index
+     */
+    public int getAnimIndex(int id) {
+        if (!doAnimation[id]) {
+            return 0;
+        }
+        return clock.getLoopFrame(getAnimStart(id), getSpriteAmount(type[id]));
+    }
+
+    public boolean isActive(int id) {
+        return active[id];
+    }
+
+    public void setActive(int id, boolean active) {
+        this.active[id] = active;
+    }
+
+    public boolean isDoAnimation(int id) {
+        return doAnimation[id];
+    }
+
+    /**
+     * Starts or stops the animation of an object. A started animation begins at its first frame with the next tick,
+     * as containers are broken by the player after the objects were updated.
+     *
+     * @param id the id of the object
+     * @param doAnimation true to play the animation
+     */
+    public void setDoAnimation(int id, boolean doAnimation) {
+        if (doAnimation && !this.doAnimation[id]) {
+            startAnimation(id, clock.getStepTime());
+        }
+        this.doAnimation[id] = doAnimation;
+    }
+
+    public AnimationClock getClock() {
+        return clock;
+    }
+
+    /**
+     * Sets the clock the animations are played against, usually the one shared by the whole game.
+     *
+     * @param clock the clock
+     */
+    public void setClock(AnimationClock clock) {
+        this.clock = clock;
+    }
+}
@@ -0,0 +1,108 @@
+package cz.cvut.fel.pjv.render;
+
+import cz.cvut.fel.pjv.main.Game;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+
+/**
+ * A stack of transparent canvases drawn on top of each other, from the static background
+ * up to the HUD and overlays. JavaFX keeps the content of a canvas until it is cleared,
+ * so a layer is only redrawn when its content changed and the other layers are composed as they are.
+ * A layer is marked dirty by invalidate() and redrawn by clearing it with begin().
+ * Must only be used on the JavaFX Application Thread.
+ */
+public class CanvasLayers {
+    public static final int BACKGROUND = 0;
+    public static final int LEVEL = 1;
+    public static final int ENTITIES = 2;
+    public static final int HUD = 3;
+    public static final int COUNT = 4;
+
+    private final Canvas[] canvases = new Canvas[COUNT];
+    private final boolean[] dirty = new boolean[COUNT];
+
+    /**
+     * Constructs the layers for the game's scaling strategy. With NATIVE_TARGET every canvas has the native size
+     * of the sprites and is scaled up as a whole when shown; the game still draws in scaled coordinates.
+     */
+    public CanvasLayers() {
+        for (int i = 0; i < COUNT; i++) {
+            Canvas canvas;
+            if (Game.SCALING == ScalingStrategy.NATIVE_TARGET) {
+                canvas = new Canvas(Game.GAME_WIDTH / Game.SCALE, Game.GAME_HEIGHT / Game.SCALE);
+                canvas.setScaleX(Game.SCALE);
+                canvas.setScaleY(Game.SCALE);
+                // Set once: a frame that draws nothing must not add commands to the canvas
+                canvas.getGraphicsContext2D().setTransform(1 / Game.SCALE, 0, 0, 1 / Game.SCALE, 0, 0);
+            } else {
+                canvas = new Canvas(Game.GAME_WIDTH, Game.GAME_HEIGHT);
+            }
+            canvas.setMouseTransparent(true);
+            canvases[i] = canvas;
+            dirty[i] = true;
+        }
+    }
+
+    /**
+     * Marks a layer to be redrawn in the next frame.
+     *
+     * @param layer the layer
+     */
+    public void invalidate(int layer) {
+        dirty[layer] = true;
+    }
+
+    /**
+     * Marks all layers to be redrawn, for example when another game state takes over the screen.
+     */
+    public void invalidateAll() {
+        for (int i = 0; i < COUNT; i++) {
+            dirty[i] = true;
+        }
+    }
+
+    public boolean isDirty(int layer) {
+        return dirty[layer];
+    }
+
+    /**
+     * Starts redrawing a layer: clears it and marks it as up to date.
+     *
+     * @param layer the layer
+     * @return the graphics context of the layer, in scaled game coordinates
+     */
+    public GraphicsContext begin(int layer) {
+        GraphicsContext gc = get(layer);
+        gc.clearRect(0, 0, Game.GAME_WIDTH, Game.GAME_HEIGHT);
+        return gc;
+    }
+
+    /**
+     * Returns a layer to draw over its current content, for updating a part of it. The layer is marked as up to date.
+     *
+     * @param layer the layer
+     * @return the graphics context of the layer, in scaled game coordinates
+     */
+    public GraphicsContext get(int layer) {
+        dirty[layer] = false;
+        return canvases[layer].getGraphicsContext2D();
+    }
+
+    /**
+     * Clears a layer that has nothing to show.
+     *
+     * @param layer the layer
+     */
+    public void clear(int layer) {
+        begin(layer);
+    }
+
+    /**
+     * Returns the canvases from the bottom layer to the top one, to be added to the scene.
+     *
+     * @return the canvases
+     */
+    public Canvas[] getCanvases() {
+        return canvases;
+    }
+}
@@ -0,0 +1,139 @@
+package cz.cvut.fel.pjv.render;
+
+import java.util.Arrays;
+
+/**
+ * A reusable list of particles stored in parallel primitive arrays and grouped by kind,
+ * so the renderer can draw each kind in one batch.
+ * The list is filled in two passes: the particles of each kind are counted first,
+ * then added, and each one lands in the range of its kind. The arrays only grow.
+ */
+public class ParticleList {
+    private final int[] start, end;
+    private int size;
+    private double[] x, y, xSpeed, ySpeed, particleSize;
+
+    /**
+     * Constructs an empty ParticleList.
+     *
+     * @param kinds the number of particle kinds
+     * @param capacity the initial capacity
+     */
+    public ParticleList(int kinds, int capacity) {
+        start = new int[kinds];
+        end = new int[kinds];
+        allocate(Math.max(1, capacity));
+    }
+
+    private void allocate(int capacity) {
+        x = new double[capacity];
+        y = new double[capacity];
+        xSpeed = new double[capacity];
+        ySpeed = new double[capacity];
+        particleSize = new double[capacity];
+    }
+
+    /**
+     * Empties the list and prepares it for the given number of particles.
+     *
+     * @param size the number of particles that will be added
+     */
+    public void begin(int size) {
+        if (size > x.length) {
+            allocate(Math.max(size, x.length * 2));
+        }
+        this.size = size;
+        Arrays.fill(end, 0);
+    }
+
+    /**
+     * Counts one particle of a kind in the first pass.
+     *
+     * @param kind the kind of the particle
+     */
+    public void count(int kind) {
+        end[kind]++;
+    }
+
+    /**
+     * Ends the counting pass by giving each kind its range of the arrays.
+     */
+    public void layout() {
+        int offset = 0;
+        for (int k = 0; k < start.length; k++) {
+            int amount = end[k];
+            start[k] = offset;
+            end[k] = offset;
+            offset += amount;
+        }
+    }
+
+    /**
+     * Adds a particle in the second pass.
+     *
+     * @param kind the kind of the particle, counted in the first pass
+     * @param x the x-coordinate of the center of the particle in the level
+     * @param y the y-coordinate of the center of the particle in the level
+     * @param xSpeed the horizontal distance the particle moved in the last tick
+     * @param ySpeed the vertical distance the particle moved in the last tick
+     * @param size the width and height of the particle
+     */
+    public void add(int kind, double x, double y, double xSpeed, double ySpeed, double size) {
+        int i = end[kind]++;
+        this.x[i] = x;
+        this.y[i] = y;
+        this.xSpeed[i] = xSpeed;
+        this.ySpeed[i] = ySpeed;
+        this.particleSize[i] = size;
+    }
+
+    /**
+     * Returns the first index of the particles of a kind.
+     *
+     * @param kind the kind
+     * @return the first index
+     */
+    public int getStart(int kind) {
+        return start[kind];
+    }
+
+    /**
+     * Returns the index after the last particle of a kind.
+     *
+     * @param kind the kind
+     * @return the end index, equal to the start if there are no particles of the kind
+     */
+    public int getEnd(int kind) {
+        return end[kind];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the x-coordinate of a particle blended from its position in the previous tick.
+     *
+     * @param i the index of the particle
+     * @param alpha the blend factor
+     * @return the blended x-coordinate
+     */
+    public double getX(int i, double alpha) {
+        return x[i] - xSpeed[i] * (1 - alpha);
+    }
+
+    /**
+     * Returns the y-coordinate of a particle blended from its position in the previous tick.
+     *
+     * @param i the index of the particle
+     * @param alpha the blend factor
+     * @return the blended y-coordinate
+     */
+    public double getY(int i, double alpha) {
+        return y[i] - ySpeed[i] * (1 - alpha);
+    }
+
+    public double getSize(int i) {
+        return particleSize[i];
+    }
+}
@@ -0,0 +1,176 @@
+package cz.cvut.fel.pjv.render;
+
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.image.Image;
+
+import java.util.Arrays;
+
+/**
+ * A buffer of sprite draw commands that is filled during a frame and flushed once at its end.
+ * Commands are sorted by layer first, so the draw order of the layers is kept, and by texture within a layer,
+ * so sprites of the same texture are drawn in one run instead of alternating between textures.
+ * Commands of the same layer and texture keep the order they were submitted in.
+ * The commands are stored in primitive arrays that only grow, so a frame does not allocate.
+ * Must only be used on the JavaFX Application Thread.
+ */
+public class RenderQueue {
+    public static final int BACKGROUND = 0;
+    public static final int LEVEL = 1;
+    public static final int PLAYER = 2;
+    public static final int OBJECTS = 3;
+    public static final int ENEMIES = 4;
+
+    private static final int STRIDE = 8;
+
+    private int size;
+    private boolean sorted;
+    private long[] keys;
+    private double[] rects;
+    private Image[] textures;
+
+    /**
+     * Constructs an empty RenderQueue.
+     *
+     * @param capacity the initial number of commands
+     */
+    public RenderQueue(int capacity) {
+        capacity = Math.max(16, capacity);
+        keys = new long[capacity];
+        rects = new double[capacity * STRIDE];
+        textures = new Image[capacity];
+    }
+
+    /**
+     * Submits a part of a texture to be drawn scaled into a rectangle. A negative width mirrors the part horizontally.
+     *
+     * @param layer the layer, lower layers are drawn first
+     * @param texture the image to draw from
+     * @param sx the x-coordinate of the part in the texture
+     * @param sy the y-coordinate of the part in the texture
+     * @param sw the width of the part
+     * @param sh the height of the part
+     * @param dx the x-coordinate of the rectangle on the screen
+     * @param dy the y-coordinate of the rectangle on the screen
+     * @param dw the width of the rectangle
+     * @param dh the height of the rectangle
+     */
+    public void submit(int layer, Image texture, double sx, double sy, double sw, double sh,
+                       double dx, double dy, double dw, double dh) {
+        if (size == keys.length) {
+            grow();
+        }
+        // Layer in the top byte, a hash of the texture below it and the submission index at the bottom.
+        // Two textures with the same hash only share a run; the index still keeps their order stable.
+        long textureKey = System.identityHashCode(texture) & 0xFFFFFFL;
+        keys[size] = (long) layer << 56 | textureKey << 32 | size;
+        textures[size] = texture;
+        int r = size * STRIDE;
+        rects[r] = sx;
+        rects[r + 1] = sy;
+        rects[r + 2] = sw;
+        rects[r + 3] = sh;
+        rects[r + 4] = dx;
+        rects[r + 5] = dy;
+        rects[r + 6] = dw;
+        rects[r + 7] = dh;
+        size++;
+        sorted = false;
+    }
+
+    /**
+     * Submits a sprite to be drawn scaled into a rectangle. A negative width mirrors the sprite horizontally.
+     *
+     * @param layer the layer, lower layers are drawn first
+     * @param sprite the sprite to draw
+     * @param x the x-coordinate of the rectangle on the screen
+     * @param y the y-coordinate of the rectangle on the screen
+     * @param width the width of the rectangle
+     * @param height the height of the rectangle
+     */
+    public void submit(int layer, SpriteRegion sprite, double x, double y, double width, double height) {
+        submit(layer, sprite.getAtlas(), sprite.getX(), sprite.getY(), sprite.getWidth(), sprite.getHeight(), x, y, width, height);
+    }
+
+    /**
+     * Submits a whole image to be drawn scaled into a rectangle.
+     *
+     * @param layer the layer, lower layers are drawn first
+     * @param image the image to draw
+     * @param x the x-coordinate of the rectangle on the screen
+     * @param y the y-coordinate of the rectangle on the screen
+     * @param width the width of the rectangle
+     * @param height the height of the rectangle
+     */
+    public void submit(int layer, Image image, double x, double y, double width, double height) {
+        submit(layer, image, 0, 0, image.getWidth(), image.getHeight(), x, y, width, height);
+    }
+
+    /**
+     * Doubles the capacity of all arrays.
+     */
+    private void grow() {
+        int capacity = keys.length * 2;
+        keys = Arrays.copyOf(keys, capacity);
+        rects = Arrays.copyOf(rects, capacity * STRIDE);
+        textures = Arrays.copyOf(textures, capacity);
+    }
+
+    /**
+     * Sorts the submitted commands into draw order.
+     */
+    public void sort() {
+        if (!sorted) {
+            Arrays.sort(keys, 0, size);
+            sorted = true;
+        }
+    }
+
+    /**
+     * Draws all submitted commands in order and empties the queue.
+     *
+     * @param gc the graphics context to draw on
+     */
+    public void flush(GraphicsContext gc) {
+        sort();
+        for (int i = 0; i < size; i++) {
+            int c = (int) keys[i];
+            int r = c * STRIDE;
+            gc.drawImage(textures[c], rects[r], rects[r + 1], rects[r + 2], rects[r + 3],
+                    rects[r + 4], rects[r + 5], rects[r + 6], rects[r + 7]);
+        }
+        clear();
+    }
+
+    /**
+     * Removes all commands without drawing them.
+     */
+    public void clear() {
+        Arrays.fill(textures, 0, size, null);
+        size = 0;
+        sorted = true;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the layer of a command in draw order. The queue must be sorted.
+     *
+     * @param i the position of the command in draw order
+     * @return the layer of the command
+     */
+    public int getLayer(int i) {
+        return (int) (keys[i] >>> 56);
+    }
+
+    /**
+     * Returns the texture of a command in draw order. The queue must be sorted.
+     *
+     * @param i the position of the command in draw order
+     * @return the texture of the command
+     */
+    public Image getTexture(int i) {
+        return textures[(int) keys[i]];
+    }
+}
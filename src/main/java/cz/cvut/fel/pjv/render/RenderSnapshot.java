@@ -0,0 +1,203 @@
+package cz.cvut.fel.pjv.render;
+
+import cz.cvut.fel.pjv.effects.ParticleSystem;
+
+/**
+ * Everything the renderer needs to draw one simulation tick of the playing state.
+ * The simulation thread fills a snapshot after each update and the JavaFX thread
+ * draws it, so drawing never reads the live entities.
+ * Positions of the previous and the current tick are both kept, and the renderer
+ * blends between them by the fraction of the tick that has passed since the snapshot was published.
+ */
+public class RenderSnapshot {
+    private int step;
+    private long publishTime;
+    private double nanosPerUpdate = 1;
+    private int prevXLevelOffset, xLevelOffset;
+    private boolean paused, gameOver, levelCompleted, gameCompleted;
+
+    private double prevPlayerX, prevPlayerY, playerX, playerY;
+    private int playerState, playerAnimIndex;
+    private boolean playerFlipped;
+    private int playerHealthWidth;
+    private int remainingEnemies, remainingStars;
+
+    private final SpriteList enemies = new SpriteList(64);
+    private final SpriteList objects = new SpriteList(64);
+    private final ParticleList particles = new ParticleList(ParticleSystem.KIND_COUNT, 256);
+
+    /**
+     * Clears the entity lists so the snapshot can be filled again.
+     */
+    public void clear() {
+        enemies.clear();
+        objects.clear();
+        particles.begin(0);
+    }
+
+    /**
+     * Sets the number of the world step the snapshot shows. It only changes on ticks where something
+     * in the level moved or was reset, so the renderer can tell when the entities look the same as before.
+     *
+     * @param step the number of the world step
+     */
+    public void setStep(int step) {
+        this.step = step;
+    }
+
+    public int getStep() {
+        return step;
+    }
+
+    /**
+     * Records when the snapshot is published and how long a tick lasts.
+     *
+     * @param publishTime the System.nanoTime() of publishing
+     * @param nanosPerUpdate the length of one simulation tick in nanoseconds
+     */
+    public void setTiming(long publishTime, double nanosPerUpdate) {
+        this.publishTime = publishTime;
+        this.nanosPerUpdate = nanosPerUpdate;
+    }
+
+    /**
+     * Returns the fraction of a tick that has passed since the snapshot was published, clamped to [0, 1].
+     *
+     * @param now the current System.nanoTime()
+     * @return the blend factor for the snapshot's positions
+     */
+    public double getAlpha(long now) {
+        double alpha = (now - publishTime) / nanosPerUpdate;
+        return Math.max(0, Math.min(1, alpha));
+    }
+
+    /**
+     * Sets the player's sprite and health bar data.
+     *
+     * @param prevX the x-coordinate of the player's sprite in the level in the previous tick
+     * @param prevY the y-coordinate of the player's sprite in the level in the previous tick
+     * @param x the x-coordinate of the player's sprite in the level
+     * @param y the y-coordinate of the player's sprite in the level
+     * @param state the animation row of the player
+     * @param animIndex the animation frame of the player
+     * @param flipped true if the player faces left
+     * @param healthWidth the width of the filled part of the health bar
+     */
+    public void setPlayer(double prevX, double prevY, double x, double y, int state, int animIndex, boolean flipped, int healthWidth) {
+        this.prevPlayerX = prevX;
+        this.prevPlayerY = prevY;
+        this.playerX = x;
+        this.playerY = y;
+        this.playerState = state;
+        this.playerAnimIndex = animIndex;
+        this.playerFlipped = flipped;
+        this.playerHealthWidth = healthWidth;
+    }
+
+    /**
+     * Sets which overlay is shown over the level.
+     *
+     * @param paused true if the game is paused
+     * @param gameOver true if the game is over
+     * @param levelCompleted true if the level is completed
+     * @param gameCompleted true if the whole game is completed
+     */
+    public void setOverlays(boolean paused, boolean gameOver, boolean levelCompleted, boolean gameCompleted) {
+        this.paused = paused;
+        this.gameOver = gameOver;
+        this.levelCompleted = levelCompleted;
+        this.gameCompleted = gameCompleted;
+    }
+
+    /**
+     * Sets the counts shown by the HUD.
+     *
+     * @param remainingEnemies the number of enemies still alive
+     * @param remainingStars the number of stars still to be collected
+     */
+    public void setRemaining(int remainingEnemies, int remainingStars) {
+        this.remainingEnemies = remainingEnemies;
+        this.remainingStars = remainingStars;
+    }
+
+    /**
+     * Sets the horizontal scroll of the level in the previous and the current tick.
+     *
+     * @param prevXLevelOffset the level offset in the previous tick
+     * @param xLevelOffset the level offset in the current tick
+     */
+    public void setXLevelOffset(int prevXLevelOffset, int xLevelOffset) {
+        this.prevXLevelOffset = prevXLevelOffset;
+        this.xLevelOffset = xLevelOffset;
+    }
+
+    /**
+     * Returns the level offset blended between the previous and the current tick, rounded to whole pixels.
+     *
+     * @param alpha the blend factor
+     * @return the blended level offset
+     */
+    public int getXLevelOffset(double alpha) {
+        return (int) Math.round(prevXLevelOffset + (xLevelOffset - prevXLevelOffset) * alpha);
+    }
+
+    public boolean isPaused() {
+        return paused;
+    }
+
+    public boolean isGameOver() {
+        return gameOver;
+    }
+
+    public boolean isLevelCompleted() {
+        return levelCompleted;
+    }
+
+    public boolean isGameCompleted() {
+        return gameCompleted;
+    }
+
+    public double getPlayerX(double alpha) {
+        return prevPlayerX + (playerX - prevPlayerX) * alpha;
+    }
+
+    public double getPlayerY(double alpha) {
+        return prevPlayerY + (playerY - prevPlayerY) * alpha;
+    }
+
+    public int getPlayerState() {
+        return playerState;
+    }
+
+    public int getPlayerAnimIndex() {
+        return playerAnimIndex;
+    }
+
+    public boolean isPlayerFlipped() {
+        return playerFlipped;
+    }
+
+    public int getPlayerHealthWidth() {
+        return playerHealthWidth;
+    }
+
+    public int getRemainingEnemies() {
+        return remainingEnemies;
+    }
+
+    public int getRemainingStars() {
+        return remainingStars;
+    }
+
+    public SpriteList getEnemies() {
+        return enemies;
+    }
+
+    public SpriteList getObjects() {
+        return objects;
+    }
+
+    public ParticleList getParticles() {
+        return particles;
+    }
+}
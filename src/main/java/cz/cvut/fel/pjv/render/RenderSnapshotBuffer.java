@@ -0,0 +1,52 @@
+package cz.cvut.fel.pjv.render;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Triple buffer of render snapshots shared by the simulation thread and the JavaFX thread.
+ * The simulation owns the back snapshot and the renderer owns the front one; the third snapshot
+ * is pending between them. Publishing swaps the back snapshot with the pending one and taking
+ * the front swaps the front snapshot with the pending one if a newer one was published since,
+ * each with a single atomic operation. Neither thread ever waits for the other, and a snapshot
+ * is never written while it is being drawn.
+ */
+public class RenderSnapshotBuffer {
+    private static final int INDEX_MASK = 0b11;
+    private static final int FRESH = 0b100;
+
+    private final RenderSnapshot[] snapshots = {new RenderSnapshot(), new RenderSnapshot(), new RenderSnapshot()};
+    // Index of the pending snapshot, with FRESH set while the renderer has not taken it yet
+    private final AtomicInteger pending = new AtomicInteger(1);
+    private int back = 0;
+    private int front = 2;
+
+    /**
+     * Returns the snapshot the simulation thread may fill. Only the simulation thread may call this.
+     *
+     * @return the back snapshot
+     */
+    public RenderSnapshot getBack() {
+        return snapshots[back];
+    }
+
+    /**
+     * Makes the filled back snapshot visible to the renderer. Only the simulation thread may call this.
+     */
+    public void publish() {
+        back = pending.getAndSet(back | FRESH) & INDEX_MASK;
+    }
+
+    /**
+     * Returns the latest published snapshot. The snapshot stays untouched by the simulation
+     * until the next call. Only the renderer thread may call this.
+     *
+     * @return the front snapshot
+     */
+    public RenderSnapshot getFront() {
+        // Only this thread clears FRESH, so the pending snapshot is still fresh when it is taken
+        if ((pending.get() & FRESH) != 0) {
+            front = pending.getAndSet(front) & INDEX_MASK;
+        }
+        return snapshots[front];
+    }
+}
@@ -0,0 +1,37 @@
+package cz.cvut.fel.pjv.render;
+
+import java.util.Locale;
+
+/**
+ * How the 32 pixel sprites are scaled up by Game.SCALE. The strategy is chosen once at startup
+ * with the system property {@code scaling}, for example {@code -Dscaling=prescaled}.
+ */
+public enum ScalingStrategy {
+    /**
+     * Every drawImage call scales its sprite from the original sprite sheet.
+     */
+    DRAW_TIME,
+
+    /**
+     * The sprite sheets are scaled once when loaded, with nearest-neighbour filtering,
+     * and sprites are drawn from the scaled copy at their own size.
+     */
+    PRESCALED,
+
+    /**
+     * The scene is drawn at the native resolution of the sprite sheets, one pixel per sprite pixel,
+     * and the whole canvas is scaled up once per frame when it is shown.
+     */
+    NATIVE_TARGET;
+
+    /**
+     * Returns the strategy with the given name, ignoring case.
+     *
+     * @param name the name of the strategy, or null for the default
+     * @return the strategy, DRAW_TIME if the name is null
+     * @throws IllegalArgumentException if there is no strategy with the name
+     */
+    public static ScalingStrategy fromName(String name) {
+        return name == null ? DRAW_TIME : valueOf(name.toUpperCase(Locale.ROOT));
+    }
+}
@@ -0,0 +1,122 @@
+package cz.cvut.fel.pjv.render;
+
+import java.util.Arrays;
+
+/**
+ * A reusable list of sprites stored in parallel primitive arrays.
+ * Each sprite keeps its position of the previous and the current tick, so it can be drawn in between.
+ * The arrays only grow, so filling the list again after clear() does not allocate.
+ */
+public class SpriteList {
+    private int size;
+    private int[] type, state, animIndex;
+    private boolean[] flipped;
+    private double[] prevX, prevY, x, y;
+
+    /**
+     * Constructs an empty SpriteList with the given initial capacity.
+     *
+     * @param capacity the initial capacity
+     */
+    public SpriteList(int capacity) {
+        type = new int[capacity];
+        state = new int[capacity];
+        animIndex = new int[capacity];
+        flipped = new boolean[capacity];
+        prevX = new double[capacity];
+        prevY = new double[capacity];
+        x = new double[capacity];
+        y = new double[capacity];
+    }
+
+    /**
+     * Removes all sprites from the list, keeping the allocated arrays.
+     */
+    public void clear() {
+        size = 0;
+    }
+
+    /**
+     * Appends a sprite to the list.
+     *
+     * @param type the type of the entity, used to pick its sprite sheet
+     * @param state the animation row of the sprite
+     * @param animIndex the animation frame of the sprite
+     * @param flipped true if the sprite is drawn mirrored horizontally
+     * @param prevX the x-coordinate of the sprite in the level in the previous tick
+     * @param prevY the y-coordinate of the sprite in the level in the previous tick
+     * @param x the x-coordinate of the sprite in the level
+     * @param y the y-coordinate of the sprite in the level
+     */
+    public void add(int type, int state, int animIndex, boolean flipped, double prevX, double prevY, double x, double y) {
+        if (size == this.type.length) {
+            grow();
+        }
+        this.type[size] = type;
+        this.state[size] = state;
+        this.animIndex[size] = animIndex;
+        this.flipped[size] = flipped;
+        this.prevX[size] = prevX;
+        this.prevY[size] = prevY;
+        this.x[size] = x;
+        this.y[size] = y;
+        size++;
+    }
+
+    /**
+     * Doubles the capacity of all arrays.
+     */
+    private void grow() {
+        int capacity = Math.max(16, type.length * 2);
+        type = Arrays.copyOf(type, capacity);
+        state = Arrays.copyOf(state, capacity);
+        animIndex = Arrays.copyOf(animIndex, capacity);
+        flipped = Arrays.copyOf(flipped, capacity);
+        prevX = Arrays.copyOf(prevX, capacity);
+        prevY = Arrays.copyOf(prevY, capacity);
+        x = Arrays.copyOf(x, capacity);
+        y = Arrays.copyOf(y, capacity);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int getType(int i) {
+        return type[i];
+    }
+
+    public int getState(int i) {
+        return state[i];
+    }
+
+    public int getAnimIndex(int i) {
+        return animIndex[i];
+    }
+
+    public boolean isFlipped(int i) {
+        return flipped[i];
+    }
+
+    /**
+     * Returns the x-coordinate of a sprite blended between the previous and the current tick.
+     *
+     * @param i the index of the sprite
+     * @param alpha the blend factor, 0 for the previous tick and 1 for the current one
+     * @return the blended x-coordinate
+     */
+    public double getX(int i, double alpha) {
+        return prevX[i] + (x[i] - prevX[i]) * alpha;
+    }
+
+    /**
+     * Returns the y-coordinate of a sprite blended between the previous and the current tick.
+     *
+     * @param i the index of the sprite
+     * @param alpha the blend factor, 0 for the previous tick and 1 for the current one
+     * @return the blended y-coordinate
+     */
+    public double getY(int i, double alpha) {
+        return prevY[i] + (y[i] - prevY[i]) * alpha;
+    }
+}
@@ -0,0 +1,155 @@
+package cz.cvut.fel.pjv.render;
+
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.image.Image;
+
+/**
+ * A rectangle of a sprite atlas. Frames are drawn straight from the shared atlas image
+ * with the source rectangle overload of drawImage, so cutting a sheet into frames copies no pixels.
+ * Sheets are usually regions of the packed atlas themselves, see LoadSave.getSprite.
+ * The atlas may be a scaled copy of the sprite sheets; sub-regions are still cut in sprite sheet pixels
+ * and mapped into the atlas with the region's scale.
+ */
+public class SpriteRegion {
+    private final Image atlas;
+    private final double x, y, width, height;
+    private final double scale;
+
+    /**
+     * Constructs a SpriteRegion.
+     *
+     * @param atlas the image holding the sprite
+     * @param x the x-coordinate of the sprite in the atlas
+     * @param y the y-coordinate of the sprite in the atlas
+     * @param width the width of the sprite in the atlas
+     * @param height the height of the sprite in the atlas
+     */
+    public SpriteRegion(Image atlas, double x, double y, double width, double height) {
+        this(atlas, x, y, width, height, 1);
+    }
+
+    /**
+     * Constructs a SpriteRegion in a scaled atlas.
+     *
+     * @param atlas the image holding the sprite
+     * @param x the x-coordinate of the sprite in the atlas
+     * @param y the y-coordinate of the sprite in the atlas
+     * @param width the width of the sprite in the atlas
+     * @param height the height of the sprite in the atlas
+     * @param scale the number of atlas pixels per sprite sheet pixel
+     */
+    public SpriteRegion(Image atlas, double x, double y, double width, double height, double scale) {
+        this.atlas = atlas;
+        this.x = x;
+        this.y = y;
+        this.width = width;
+        this.height = height;
+        this.scale = scale;
+    }
+
+    /**
+     * Returns the same sprite in a scaled copy of the atlas.
+     *
+     * @param scaledAtlas the atlas scaled by the factor
+     * @param factor the factor the atlas was scaled by
+     * @return the region of the sprite in the scaled atlas
+     */
+    public SpriteRegion scaled(Image scaledAtlas, double factor) {
+        return new SpriteRegion(scaledAtlas, x * factor, y * factor, width * factor, height * factor, scale * factor);
+    }
+
+    /**
+     * Returns a part of this region, for example one frame of a sprite sheet.
+     *
+     * @param x the x-coordinate of the part inside this region, in sprite sheet pixels
+     * @param y the y-coordinate of the part inside this region, in sprite sheet pixels
+     * @param width the width of the part, in sprite sheet pixels
+     * @param height the height of the part, in sprite sheet pixels
+     * @return the region of the part in the same atlas
+     */
+    public SpriteRegion region(double x, double y, double width, double height) {
+        return new SpriteRegion(atlas, this.x + x * scale, this.y + y * scale, width * scale, height * scale, scale);
+    }
+
+    /**
+     * Cuts one row of equally sized frames out of this region.
+     *
+     * @param row the row of the frames
+     * @param frames the number of frames
+     * @param frameWidth the width of a frame
+     * @param frameHeight the height of a frame
+     * @return the frames from left to right
+     */
+    public SpriteRegion[] row(int row, int frames, double frameWidth, double frameHeight) {
+        SpriteRegion[] regions = new SpriteRegion[frames];
+        for (int i = 0; i < frames; i++) {
+            regions[i] = region(i * frameWidth, row * frameHeight, frameWidth, frameHeight);
+        }
+        return regions;
+    }
+
+    /**
+     * Cuts a grid of equally sized frames out of this region.
+     *
+     * @param rows the number of rows
+     * @param columns the number of frames in each row
+     * @param frameWidth the width of a frame
+     * @param frameHeight the height of a frame
+     * @return the frames indexed by row and column
+     */
+    public SpriteRegion[][] grid(int rows, int columns, double frameWidth, double frameHeight) {
+        SpriteRegion[][] regions = new SpriteRegion[rows][];
+        for (int j = 0; j < rows; j++) {
+            regions[j] = row(j, columns, frameWidth, frameHeight);
+        }
+        return regions;
+    }
+
+    /**
+     * Draws the sprite scaled into a rectangle. A negative width mirrors the sprite horizontally.
+     *
+     * @param gc the graphics context to draw on
+     * @param x the x-coordinate of the rectangle
+     * @param y the y-coordinate of the rectangle
+     * @param width the width of the rectangle
+     * @param height the height of the rectangle
+     */
+    public void draw(GraphicsContext gc, double x, double y, double width, double height) {
+        gc.drawImage(atlas, this.x, this.y, this.width, this.height, x, y, width, height);
+    }
+
+    /**
+     * Draws the sprite at its own size.
+     *
+     * @param gc the graphics context to draw on
+     * @param x the x-coordinate of the sprite
+     * @param y the y-coordinate of the sprite
+     */
+    public void draw(GraphicsContext gc, double x, double y) {
+        draw(gc, x, y, width, height);
+    }
+
+    public Image getAtlas() {
+        return atlas;
+    }
+
+    public double getX() {
+        return x;
+    }
+
+    public double getY() {
+        return y;
+    }
+
+    public double getWidth() {
+        return width;
+    }
+
+    public double getHeight() {
+        return height;
+    }
+
+    public double getScale() {
+        return scale;
+    }
+}
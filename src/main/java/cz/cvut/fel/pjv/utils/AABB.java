@@ -0,0 +1,96 @@
+package cz.cvut.fel.pjv.utils;
+
+/**
+ * A mutable axis-aligned bounding box used for hitboxes and attack boxes in the simulation.
+ * It is a plain object with four doubles, unlike javafx.scene.shape.Rectangle, which is
+ * a scene graph node with observable properties behind every getter and setter.
+ * Boxes that only touch at an edge count as intersecting, as they do for Rectangle.
+ */
+public class AABB {
+    private double x, y, width, height;
+
+    /**
+     * Constructs an AABB with the given position and size.
+     *
+     * @param x the x-coordinate of the left edge
+     * @param y the y-coordinate of the top edge
+     * @param width the width of the box
+     * @param height the height of the box
+     */
+    public AABB(double x, double y, double width, double height) {
+        this.x = x;
+        this.y = y;
+        this.width = width;
+        this.height = height;
+    }
+
+    /**
+     * Checks if this box overlaps or touches the given rectangle.
+     *
+     * @param x the x-coordinate of the rectangle
+     * @param y the y-coordinate of the rectangle
+     * @param width the width of the rectangle
+     * @param height the height of the rectangle
+     * @return true if the boxes intersect
+     */
+    public boolean intersects(double x, double y, double width, double height) {
+        return this.x <= x + width && x <= this.x + this.width
+                && this.y <= y + height && y <= this.y + this.height;
+    }
+
+    /**
+     * Checks if this box overlaps or touches another box.
+     *
+     * @param other the other box
+     * @return true if the boxes intersect
+     */
+    public boolean intersects(AABB other) {
+        return intersects(other.x, other.y, other.width, other.height);
+    }
+
+    /**
+     * Checks if a point lies inside this box or on its edge.
+     *
+     * @param px the x-coordinate of the point
+     * @param py the y-coordinate of the point
+     * @return true if the box contains the point
+     */
+    public boolean contains(double px, double py) {
+        return px >= x && px <= x + width && py >= y && py <= y + height;
+    }
+
+    /**
+     * Moves the box by the given distance.
+     *
+     * @param dx the horizontal distance
+     * @param dy the vertical distance
+     */
+    public void translate(double dx, double dy) {
+        x += dx;
+        y += dy;
+    }
+
+    public double getX() {
+        return x;
+    }
+
+    public void setX(double x) {
+        this.x = x;
+    }
+
+    public double getY() {
+        return y;
+    }
+
+    public void setY(double y) {
+        this.y = y;
+    }
+
+    public double getWidth() {
+        return width;
+    }
+
+    public double getHeight() {
+        return height;
+    }
+}
@@ -0,0 +1,90 @@
+package cz.cvut.fel.pjv.utils;
+
+import java.util.Arrays;
+
+/**
+ * A set of entity ids kept in a dense array, so iterating it costs only as much as there are ids in it.
+ * Removing an id moves the last id into its place, which makes adding, removing and lookups constant time,
+ * but the order of the ids is not kept.
+ */
+public class ActiveList {
+    private int[] ids;
+    private int[] positions = new int[0];
+    private int size;
+
+    /**
+     * Constructs an empty ActiveList with the given initial capacity.
+     *
+     * @param capacity the initial capacity
+     */
+    public ActiveList(int capacity) {
+        ids = new int[Math.max(1, capacity)];
+    }
+
+    /**
+     * Removes all ids from the list.
+     */
+    public void clear() {
+        for (int i = 0; i < size; i++) {
+            positions[ids[i]] = -1;
+        }
+        size = 0;
+    }
+
+    /**
+     * Adds an id to the list. Nothing changes if the id is already in it.
+     *
+     * @param id the id, not negative
+     */
+    public void add(int id) {
+        if (id >= positions.length) {
+            int length = positions.length;
+            positions = Arrays.copyOf(positions, Math.max(id + 1, length * 2));
+            Arrays.fill(positions, length, positions.length, -1);
+        }
+        if (positions[id] >= 0) {
+            return;
+        }
+        if (size == ids.length) {
+            ids = Arrays.copyOf(ids, size * 2);
+        }
+        positions[id] = size;
+        ids[size++] = id;
+    }
+
+    /**
+     * Removes an id from the list by moving the last id into its place.
+     *
+     * @param id the id
+     * @return true if the id was in the list, false otherwise
+     */
+    public boolean remove(int id) {
+        if (!contains(id)) {
+            return false;
+        }
+        int position = positions[id];
+        int last = ids[--size];
+        ids[position] = last;
+        positions[last] = position;
+        positions[id] = -1;
+        return true;
+    }
+
+    public boolean contains(int id) {
+        return id >= 0 && id < positions.length && positions[id] >= 0;
+    }
+
+    /**
+     * Returns the id at a position of the list.
+     *
+     * @param index the position, less than size()
+     * @return the id
+     */
+    public int get(int index) {
+        return ids[index];
+    }
+
+    public int size() {
+        return size;
+    }
+}
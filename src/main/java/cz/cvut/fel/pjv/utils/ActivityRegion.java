@@ -0,0 +1,95 @@
+package cz.cvut.fel.pjv.utils;
+
+import cz.cvut.fel.pjv.main.Game;
+
+/**
+ * The part of the level around the viewport where entities are simulated.
+ * Entities outside of it sleep: they are not updated and keep their state until the camera comes close again,
+ * so the cost of a tick depends on what is near the player and not on the size of the level.
+ * Levels only scroll horizontally, so the region always spans the height of the screen.
+ */
+public class ActivityRegion {
+    /**
+     * The default distance from the viewport within which entities stay awake: one screen on each side.
+     */
+    public static final double DEFAULT_RADIUS = Game.GAME_WIDTH;
+
+    private double radius;
+    private double x, width;
+
+    /**
+     * Constructs an ActivityRegion with the default radius.
+     */
+    public ActivityRegion() {
+        this(DEFAULT_RADIUS);
+    }
+
+    /**
+     * Constructs an ActivityRegion with the given radius.
+     *
+     * @param radius the distance from the viewport within which entities stay awake, in pixels
+     */
+    public ActivityRegion(double radius) {
+        setRadius(radius);
+    }
+
+    /**
+     * Moves the region to surround the viewport at the given level offset.
+     *
+     * @param xLevelOffset the horizontal offset of the viewport in the level
+     */
+    public void update(int xLevelOffset) {
+        x = xLevelOffset - radius;
+        width = Game.GAME_WIDTH + 2 * radius;
+    }
+
+    /**
+     * Checks if a box touches the region, edges included.
+     *
+     * @param x the x-coordinate of the box
+     * @param y the y-coordinate of the box
+     * @param width the width of the box
+     * @param height the height of the box
+     * @return true if the box touches the region, false otherwise
+     */
+    public boolean intersects(double x, double y, double width, double height) {
+        return x <= this.x + this.width && x + width >= this.x && y <= Game.GAME_HEIGHT && y + height >= 0;
+    }
+
+    /**
+     * Returns the number of grid columns of the given width the region covers.
+     *
+     * @param columnWidth the width of a column
+     * @return the number of columns, which exceeds the int range for a very large radius
+     */
+    public double getColumnCount(double columnWidth) {
+        return Math.floor(width / columnWidth) + 1;
+    }
+
+    public double getRadius() {
+        return radius;
+    }
+
+    public void setRadius(double radius) {
+        if (radius < 0) {
+            throw new IllegalArgumentException("Activity radius must not be negative: " + radius);
+        }
+        this.radius = radius;
+    }
+
+    public double getX() {
+        return x;
+    }
+
+    public double getY() {
+        return 0;
+    }
+
+    public double getWidth() {
+        return width;
+    }
+
+    public double getHeight() {
+        return Game.GAME_HEIGHT;
+    }
+}
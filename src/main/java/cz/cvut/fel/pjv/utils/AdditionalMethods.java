@@ -1,21 +1,7 @@
 package cz.cvut.fel.pjv.utils;
 
-import cz.cvut.fel.pjv.characters.Cat;
-import cz.cvut.fel.pjv.characters.Dog;
+import cz.cvut.fel.pjv.levels.TileMap;
 import cz.cvut.fel.pjv.main.Game;
-import cz.cvut.fel.pjv.objects.GameContainer;
-import cz.cvut.fel.pjv.objects.Star;
-import cz.cvut.fel.pjv.objects.Potion;
-import cz.cvut.fel.pjv.objects.Spike;
-import javafx.geometry.Point2D;
-import javafx.scene.image.Image;
-import javafx.scene.paint.Color;
-import javafx.scene.shape.Rectangle;
-
-import java.util.ArrayList;
-
-import static cz.cvut.fel.pjv.utils.Constants.EnemyConstants.*;
-import static cz.cvut.fel.pjv.utils.Constants.ObjectConstants.*;
 
 /**
  * Utility class providing additional methods for various game-related functionalities.
@@ -29,45 +15,26 @@ public class AdditionalMethods {
      * @param y the y-coordinate of the area
      * @param width the width of the area
      * @param height the height of the area
-     * @param levelData the level data representing the game world
+     * @param tileMap the tiles of the level
      * @return true if the area can move to the specified position, false otherwise
      */
-    public static boolean canMoveHere(double x, double y, double width, double height, int[][] levelData) {
-        if (!isSolid(x, y, levelData)) {
-            if (!isSolid(x + width, y + height, levelData)) {
-                if (!isSolid(x + width, y, levelData)) {
-                    if (!isSolid(x, y + height, levelData)) {
-                        return true;
-                    }
-                }
-            }
-        }
-        return false;
-    }
-
-    private static boolean isSolid(double x, double y, int[][] levelData) {
-        int maxWidth = levelData[0].length * Game.TILES_SIZE;
-        if (x < 0 || x >= maxWidth)
-            return true;
-        if (y < 0 || y >= Game.GAME_HEIGHT)
-            return true;
-        double xIndex = x / Game.TILES_SIZE;
-        double yIndex = y / Game.TILES_SIZE;
-
-        return isTilesSolid((int) xIndex, (int) yIndex, levelData);
+    public static boolean canMoveHere(double x, double y, double width, double height, TileMap tileMap) {
+        return !tileMap.isSolidAt(x, y)
+                && !tileMap.isSolidAt(x + width, y + height)
+                && !tileMap.isSolidAt(x + width, y)
+                && !tileMap.isSolidAt(x, y + height);
     }
 
     /**
-     * Checks if a tile is solid based on its value in the level data.
+     * Checks if a tile is solid.
      *
      * @param xTile the x-coordinate of the tile
      * @param yTile the y-coordinate of the tile
-     * @param levelData the level data representing the game world
+     * @param tileMap the tiles of the level
      * @return true if the tile is solid, false otherwise
      */
-    public static boolean isTilesSolid(int xTile, int yTile, int[][] levelData) {
-        int value = levelData[yTile][xTile];
-        return value >= 45 || value < 0 || value != 44;
+    public static boolean isTilesSolid(int xTile, int yTile, TileMap tileMap) {
+        return tileMap.isSolid(xTile, yTile);
     }
 
     /**
@@ -77,7 +44,7 @@ public class AdditionalMethods {
      * @param xSpeed the current speed of the entity
      * @return the next position of the entity next to a wall
      */
-    public static double getEntityPosNextToWall(Rectangle hitBox, double xSpeed) {
+    public static double getEntityPosNextToWall(AABB hitBox, double xSpeed) {
         int currentTile = (int) (hitBox.getX() / Game.TILES_SIZE);
         if (xSpeed > 0) {
             int tileXPosition = currentTile * Game.TILES_SIZE;
@@ -95,11 +62,23 @@ public class AdditionalMethods {
      * @param airSpeed the current air speed of the character
      * @return the character position above or below
      */
-    public static double getCharacterPositionAboveBellow(Rectangle hitBox, double airSpeed) {
-        int currentTile = (int) (hitBox.getY() / Game.TILES_SIZE);
+    public static double getCharacterPositionAboveBellow(AABB hitBox, double airSpeed) {
+        return getCharacterPositionAboveBellow(hitBox.getY(), hitBox.getHeight(), airSpeed);
+    }
+
+    /**
+     * Gets the character position above or below based on its current air speed.
+     *
+     * @param y the y-coordinate of the character's hitbox
+     * @param height the height of the character's hitbox
+     * @param airSpeed the current air speed of the character
+     * @return the character position above or below
+     */
+    public static double getCharacterPositionAboveBellow(double y, double height, double airSpeed) {
+        int currentTile = (int) (y / Game.TILES_SIZE);
         if (airSpeed > 0) {
             int tileYPosition = currentTile * Game.TILES_SIZE;
-            int yOffset = (int) (Game.TILES_SIZE - hitBox.getHeight());
+            int yOffset = (int) (Game.TILES_SIZE - height);
             return tileYPosition + yOffset - 1;
         } else {
             return currentTile * Game.TILES_SIZE;
@@ -110,14 +89,26 @@ public class AdditionalMethods {
      * Checks if an entity is on the floor based on its hitbox and the level data.
      *
      * @param hitBox the hitbox of the entity
-     * @param levelData the level data representing the game world
+     * @param tileMap the tiles of the level
      * @return true if the entity is on the floor, false otherwise
      */
-    public static boolean isEntityOnFloor(Rectangle hitBox, int[][] levelData) {
-        if (!isSolid(hitBox.getX(), hitBox.getY() + hitBox.getHeight() + 1, levelData))
-            if (!isSolid(hitBox.getX() + hitBox.getWidth(), hitBox.getY() + hitBox.getHeight() + 1, levelData))
-                return false;
-        return true;
+    public static boolean isEntityOnFloor(AABB hitBox, TileMap tileMap) {
+        return isEntityOnFloor(hitBox.getX(), hitBox.getY(), hitBox.getWidth(), hitBox.getHeight(), tileMap);
+    }
+
+    /**
+     * Checks if an entity is on the floor based on its hitbox and the level data.
+     *
+     * @param x the x-coordinate of the entity's hitbox
+     * @param y the y-coordinate of the entity's hitbox
+     * @param width the width of the entity's hitbox
+     * @param height the height of the entity's hitbox
+     * @param tileMap the tiles of the level
+     * @return true if the entity is on the floor, false otherwise
+     */
+    public static boolean isEntityOnFloor(double x, double y, double width, double height, TileMap tileMap) {
+        double below = y + height + 1;
+        return tileMap.isSolidAt(x, below) || tileMap.isSolidAt(x + width, below);
     }
 
     /**
@@ -125,14 +116,29 @@ public class AdditionalMethods {
      *
      * @param hitBox the hitbox of the entity
      * @param xSpeed the current speed of the entity
-     * @param levelData the level data representing the game world
+     * @param tileMap the tiles of the level
      * @return true if the floor is solid, false otherwise
      */
-    public static boolean isFloor(Rectangle hitBox, double xSpeed, int[][] levelData) {
+    public static boolean isFloor(AABB hitBox, double xSpeed, TileMap tileMap) {
+        return isFloor(hitBox.getX(), hitBox.getY(), hitBox.getWidth(), hitBox.getHeight(), xSpeed, tileMap);
+    }
+
+    /**
+     * Checks if the floor is solid at the specified position and speed.
+     *
+     * @param x the x-coordinate of the entity's hitbox
+     * @param y the y-coordinate of the entity's hitbox
+     * @param width the width of the entity's hitbox
+     * @param height the height of the entity's hitbox
+     * @param xSpeed the current speed of the entity
+     * @param tileMap the tiles of the level
+     * @return true if the floor is solid, false otherwise
+     */
+    public static boolean isFloor(double x, double y, double width, double height, double xSpeed, TileMap tileMap) {
         if (xSpeed > 0) {
-            return isSolid(hitBox.getX() + hitBox.getWidth() + xSpeed, hitBox.getY() + hitBox.getHeight() + 32, levelData);
+            return tileMap.isSolidAt(x + width + xSpeed, y + height + 32);
         } else
-            return isSolid(hitBox.getX() + xSpeed, hitBox.getY() + hitBox.getHeight() + 32, levelData);
+            return tileMap.isSolidAt(x + xSpeed, y + height + 32);
     }
 
     /**
@@ -141,14 +147,11 @@ public class AdditionalMethods {
      * @param xStart the starting x-coordinate
      * @param xEnd the ending x-coordinate
      * @param y the y-coordinate
-     * @param lvlData the level data representing the game world
+     * @param tileMap the tiles of the level
      * @return true if all tiles are clear, false otherwise
      */
-    public static boolean isAllTilesClear(int xStart, int xEnd, int y, int[][] lvlData) {
-        for (int i = 0; i < xEnd - xStart; i++)
-            if (isTilesSolid(xStart + i, y, lvlData))
-                return false;
-        return true;
+    public static boolean isAllTilesClear(int xStart, int xEnd, int y, TileMap tileMap) {
+        return tileMap.countSolid(xStart, xEnd, y) == 0;
     }
 
     /**
@@ -157,15 +160,12 @@ public class AdditionalMethods {
      * @param xStart the starting x-coordinate
      * @param xEnd the ending x-coordinate
      * @param y the y-coordinate
-     * @param levelData the level data representing the game world
+     * @param tileMap the tiles of the level
      * @return true if all tiles are walkable, false otherwise
      */
-    public static boolean isAllTilesWalkable(int xStart, int xEnd, int y, int[][] levelData) {
-        if (isAllTilesClear(xStart, xEnd, y, levelData)) {
-            for (int i = 0; i < xEnd - xStart; i++) {
-                if (!isTilesSolid(xStart + i, y + 1, levelData))
-                    return false;
-            }
+    public static boolean isAllTilesWalkable(int xStart, int xEnd, int y, TileMap tileMap) {
+        if (isAllTilesClear(xStart, xEnd, y, tileMap)) {
+            return tileMap.countSolid(xStart, xEnd, y + 1) == xEnd - xStart;
         }
         return true;
     }
@@ -173,174 +173,33 @@ public class AdditionalMethods {
     /**
      * Checks if the sight between the enemy and the player is clear.
      *
-     * @param levelData the level data representing the game world
+     * @param tileMap the tiles of the level
      * @param hitBoxEnemy the hitbox of the enemy
      * @param hitBoxPlayer the hitbox of the player
      * @param yTile the y-coordinate tile
      * @return true if the sight is clear, false otherwise
      */
-    public static boolean isSightClear(int[][] levelData, Rectangle hitBoxEnemy, Rectangle hitBoxPlayer, int yTile) {
-        int enemyXTile = (int) (hitBoxEnemy.getX() / Game.TILES_SIZE);
-        int playerXTile = (int) (hitBoxPlayer.getX() / Game.TILES_SIZE);
-
-        if (enemyXTile > playerXTile) {
-            return isAllTilesWalkable(playerXTile, enemyXTile, yTile, levelData);
-        } else {
-            return isAllTilesWalkable(enemyXTile, playerXTile, yTile, levelData);
-        }
+    public static boolean isSightClear(TileMap tileMap, AABB hitBoxEnemy, AABB hitBoxPlayer, int yTile) {
+        return isSightClear(tileMap, hitBoxEnemy.getX(), hitBoxPlayer.getX(), yTile);
     }
 
     /**
-     * Loads the level data from an image.
-     *
-     * @param image the image representing the level
-     * @return a 2D array of integers representing the level data
-     */
-    public static int[][] loadLevelData(Image image) {
-        int[][] levelData = new int[(int) image.getHeight()][(int) image.getWidth()];
-
-        for (int j = 0; j < (int) image.getHeight(); j++) {
-            for (int i = 0; i < (int) image.getWidth(); i++) {
-                Color color = image.getPixelReader().getColor(i, j);
-                int value = (int) Math.round(color.getRed() * 255);
-                if (value >= 45)
-                    value = 0;
-                levelData[j][i] = value;
-            }
-        }
-
-        return levelData;
-    }
-
-    /**
-     * Loads the dog enemies from an image.
-     *
-     * @param image the image representing the level
-     * @return an ArrayList of Dog objects
-     */
-    public static ArrayList<Dog> loadDogs(Image image) {
-        ArrayList<Dog> list = new ArrayList<>();
-        for (int j = 0; j < (int) image.getHeight(); j++) {
-            for (int i = 0; i < (int) image.getWidth(); i++) {
-                Color color = image.getPixelReader().getColor(i, j);
-                int value = (int) Math.round(color.getGreen() * 255);
-                if (value == DOG)
-                    list.add(new Dog(i * Game.TILES_SIZE, j * Game.TILES_SIZE));
-            }
-        }
-        return list;
-    }
-
-    /**
-     * Loads the cat enemies from an image.
-     *
-     * @param image the image representing the level
-     * @return an ArrayList of Cat objects
-     */
-    public static ArrayList<Cat> loadCats(Image image) {
-        ArrayList<Cat> list = new ArrayList<>();
-        for (int j = 0; j < (int) image.getHeight(); j++) {
-            for (int i = 0; i < (int) image.getWidth(); i++) {
-                Color color = image.getPixelReader().getColor(i, j);
-                int value = (int) Math.round(color.getGreen() * 255);
-                if (value == CAT)
-                    list.add(new Cat(i * Game.TILES_SIZE, j * Game.TILES_SIZE));
-            }
-        }
-        return list;
-    }
-
-    /**
-     * Gets the player's spawn position from an image.
-     *
-     * @param image the image representing the level
-     * @return a Point2D representing the player's spawn position
-     */
-    public static Point2D getPlayerSpawnPosition(Image image) {
-        for (int j = 0; j < (int) image.getHeight(); j++) {
-            for (int i = 0; i < (int) image.getWidth(); i++) {
-                Color color = image.getPixelReader().getColor(i, j);
-                int value = (int) Math.round(color.getGreen() * 255);
-                if (value == 255)
-                    return new Point2D(i * Game.TILES_SIZE, j * Game.TILES_SIZE);
-            }
-        }
-        return new Point2D(1 * Game.TILES_SIZE, 1 * Game.TILES_SIZE);
-    }
-
-    /**
-     * Loads the health potions from an image.
-     *
-     * @param image the image representing the level
-     * @return an ArrayList of Potion objects
-     */
-    public static ArrayList<Potion> loadPotions(Image image) {
-        ArrayList<Potion> list = new ArrayList<>();
-        for (int j = 0; j < (int) image.getHeight(); j++) {
-            for (int i = 0; i < (int) image.getWidth(); i++) {
-                Color color = image.getPixelReader().getColor(i, j);
-                int value = (int) Math.round(color.getBlue() * 255);
-                if (value == HEALTH_POTION)
-                    list.add(new Potion(i * Game.TILES_SIZE, j * Game.TILES_SIZE, HEALTH_POTION));
-            }
-        }
-        return list;
-    }
-
-    /**
-     * Loads the game containers from an image.
-     *
-     * @param image the image representing the level
-     * @return an ArrayList of GameContainer objects
-     */
-    public static ArrayList<GameContainer> loadContainers(Image image) {
-        ArrayList<GameContainer> list = new ArrayList<>();
-        for (int j = 0; j < (int) image.getHeight(); j++) {
-            for (int i = 0; i < (int) image.getWidth(); i++) {
-                Color color = image.getPixelReader().getColor(i, j);
-                int value = (int) Math.round(color.getBlue() * 255);
-                if (value == BARREL || value == BOX)
-                    list.add(new GameContainer(i * Game.TILES_SIZE, j * Game.TILES_SIZE, value));
-            }
-        }
-        return list;
-    }
-
-    /**
-     * Loads the spikes from an image.
+     * Checks if the sight between the enemy and the player is clear.
      *
-     * @param image the image representing the level
-     * @return an ArrayList of Spike objects
+     * @param tileMap the tiles of the level
+     * @param enemyX the x-coordinate of the enemy's hitbox
+     * @param playerX the x-coordinate of the player's hitbox
+     * @param yTile the y-coordinate tile
+     * @return true if the sight is clear, false otherwise
      */
-    public static ArrayList<Spike> loadSpikes(Image image) {
-        ArrayList<Spike> list = new ArrayList<>();
-        for (int j = 0; j < (int) image.getHeight(); j++) {
-            for (int i = 0; i < (int) image.getWidth(); i++) {
-                Color color = image.getPixelReader().getColor(i, j);
-                int value = (int) Math.round(color.getBlue() * 255);
-                if (value == SPIKE)
-                    list.add(new Spike(i * Game.TILES_SIZE, j * Game.TILES_SIZE, SPIKE));
-            }
-        }
-        return list;
-    }
+    public static boolean isSightClear(TileMap tileMap, double enemyX, double playerX, int yTile) {
+        int enemyXTile = (int) (enemyX / Game.TILES_SIZE);
+        int playerXTile = (int) (playerX / Game.TILES_SIZE);
 
-    /**
-     * Loads the stars from an image.
-     *
-     * @param image the image representing the level
-     * @return an ArrayList of Star objects
-     */
-    public static ArrayList<Star> loadStars(Image image) {
-        ArrayList<Star> list = new ArrayList<>();
-        for (int j = 0; j < (int) image.getHeight(); j++) {
-            for (int i = 0; i < (int) image.getWidth(); i++) {
-                Color color = image.getPixelReader().getColor(i, j);
-                int value = (int) Math.round(color.getBlue() * 255);
-                if (value == STAR)
-                    list.add(new Star(i * Game.TILES_SIZE, j * Game.TILES_SIZE, STAR));
-            }
+        if (enemyXTile > playerXTile) {
+            return isAllTilesWalkable(playerXTile, enemyXTile, yTile, tileMap);
+        } else {
+            return isAllTilesWalkable(enemyXTile, playerXTile, yTile, tileMap);
         }
-        return list;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,114 @@
+package cz.cvut.fel.pjv.utils;
+
+import cz.cvut.fel.pjv.main.Game;
+
+import static cz.cvut.fel.pjv.utils.Constants.ANIMATION_SPEED;
+
+/**
+ * The simulation time that all animations are played against. Instead of counting ticks,
+ * an entity remembers the time its animation started and derives the current frame from the elapsed time,
+ * so a looping animation needs no work per tick and animations keep their speed when the update rate changes.
+ * The time only moves when the game steps, so a paused game keeps its frames and headless runs stay deterministic.
+ * <p>
+ * The clock is moved by tick() after the entities of a tick were updated, so during a tick getTime() is the time
+ * at its start. The animations of a tick advance in the animation step of each entity; from that step on the
+ * tick has passed for the entity, which getStepTime() and isFinished() account for. A state that changes before
+ * the step starts at getTime() and one that changes in or after it starts at getStepTime(), so frames change
+ * on the same ticks as with a counter incremented in every animation step.
+ */
+public class AnimationClock {
+    /**
+     * The length of one simulation tick at the default update rate.
+     */
+    public static final long DEFAULT_TICK_NANOS = 1_000_000_000L / Game.DEFAULT_UPS;
+
+    /**
+     * How long each frame of an animation is shown: ANIMATION_SPEED ticks at the default update rate.
+     */
+    public static final long FRAME_NANOS = ANIMATION_SPEED * DEFAULT_TICK_NANOS;
+
+    private long time;
+    private long tickNanos = DEFAULT_TICK_NANOS;
+
+    /**
+     * Sets the length of the ticks being simulated, from the current update rate.
+     *
+     * @param tickNanos the length of one tick in nanoseconds
+     */
+    public void setTickNanos(long tickNanos) {
+        this.tickNanos = tickNanos;
+    }
+
+    /**
+     * Moves the clock forward by one tick, after the entities of the tick were updated.
+     */
+    public void tick() {
+        time += tickNanos;
+    }
+
+    /**
+     * Returns the number of whole frames shown since an animation started.
+     *
+     * @param start the time the animation started
+     * @return the number of elapsed frames
+     */
+    public int getFrame(long start) {
+        return (int) ((time - start) / FRAME_NANOS);
+    }
+
+    /**
+     * Returns the current frame of a looping animation.
+     *
+     * @param start the time the animation started
+     * @param frames the number of frames of the animation
+     * @return the frame index, from 0 to frames - 1
+     */
+    public int getLoopFrame(long start, int frames) {
+        return frames <= 1 ? 0 : getFrame(start) % frames;
+    }
+
+    /**
+     * Checks if an animation that plays once has shown all of its frames by the end of the current tick.
+     * Called from the animation step of an entity.
+     *
+     * @param start the time the animation started
+     * @param frames the number of frames of the animation
+     * @return true if the animation is over, false otherwise
+     */
+    public boolean isFinished(long start, int frames) {
+        return (getStepTime() - start) / FRAME_NANOS >= frames;
+    }
+
+    /**
+     * Checks if a looping animation finished a cycle in the current tick.
+     * Called from the animation step of an entity.
+     *
+     * @param start the time the animation started
+     * @param frames the number of frames of the animation
+     * @return true if the last frame of a cycle ended in this tick
+     */
+    public boolean hasLooped(long start, int frames) {
+        long cycle = frames * FRAME_NANOS;
+        return (getStepTime() - start) / cycle > (time - start) / cycle;
+    }
+
+    /**
+     * Returns the time at the start of the current tick. During a tick this is the time an animation
+     * started by a change before the animation step starts at.
+     *
+     * @return the current time in nanoseconds
+     */
+    public long getTime() {
+        return time;
+    }
+
+    /**
+     * Returns the time at the end of the current tick, which an animation started in or after
+     * the animation step of an entity starts at.
+     *
+     * @return the end of the current tick in nanoseconds
+     */
+    public long getStepTime() {
+        return time + tickNanos;
+    }
+}
@@ -0,0 +1,172 @@
+package cz.cvut.fel.pjv.utils;
+
+import javax.imageio.ImageIO;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Properties;
+
+/**
+ * Packs the sprite sheets of the game into one atlas image at build time.
+ * Every PNG at the top level of the resources with no side longer than MAX_SHEET_SIZE is packed;
+ * full screen backgrounds stay separate. Next to the atlas an index in the properties format maps
+ * the file name of each sheet to its rectangle, which LoadSave.getSprite reads at runtime.
+ * Sheets with a frame grid in FRAME_GRIDS also get the grid, which LoadSave.getFrames cuts them with.
+ * Maven runs the packer after compiling, so the atlas is always built from the current sheets.
+ */
+public class AtlasPacker {
+    public static final String ATLAS_IMAGE = "atlas.png";
+    public static final String ATLAS_INDEX = "atlas.properties";
+    public static final String FRAME_GRIDS = "sprites.properties";
+    public static final int ATLAS_WIDTH = 1024;
+    public static final int MAX_SHEET_SIZE = 640;
+
+    /**
+     * The gap left around every sheet, so filtering at a sheet's edge never samples its neighbour.
+     */
+    private static final int PADDING = 2;
+
+    /**
+     * Packs the sheets of a resource directory.
+     *
+     * @param args the resource directory and the output directory
+     * @throws IOException if a sheet cannot be read or the atlas cannot be written
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            throw new IllegalArgumentException("Usage: AtlasPacker <resource directory> <output directory>");
+        }
+        File[] files = new File(args[0]).listFiles((dir, name) -> name.endsWith(".png"));
+        if (files == null) {
+            throw new IOException("Not a directory: " + args[0]);
+        }
+        Arrays.sort(files);
+        Properties grids = new Properties();
+        File gridFile = new File(args[0], FRAME_GRIDS);
+        if (gridFile.isFile()) {
+            try (InputStream is = new FileInputStream(gridFile)) {
+                grids.load(is);
+            }
+        }
+
+        List<String> names = new ArrayList<>();
+        List<BufferedImage> sheets = new ArrayList<>();
+        for (File file : files) {
+            BufferedImage sheet = ImageIO.read(file);
+            if (sheet != null && sheet.getWidth() <= MAX_SHEET_SIZE && sheet.getHeight() <= MAX_SHEET_SIZE) {
+                names.add(file.getName());
+                sheets.add(sheet);
+            }
+        }
+
+        int[] widths = new int[sheets.size()];
+        int[] heights = new int[sheets.size()];
+        for (int i = 0; i < sheets.size(); i++) {
+            widths[i] = sheets.get(i).getWidth();
+            heights[i] = sheets.get(i).getHeight();
+        }
+        int[][] positions = pack(widths, heights, ATLAS_WIDTH);
+
+        int atlasHeight = 1;
+        for (int i = 0; i < positions.length; i++) {
+            atlasHeight = Math.max(atlasHeight, positions[i][1] + heights[i]);
+        }
+        BufferedImage atlas = new BufferedImage(ATLAS_WIDTH, atlasHeight, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = atlas.createGraphics();
+        StringBuilder index = new StringBuilder("# Generated by AtlasPacker: sheet file name = x,y,width,height in " + ATLAS_IMAGE
+                + "[,frameWidth,frameHeight,rows,columns]\n");
+        for (int i = 0; i < sheets.size(); i++) {
+            g.drawImage(sheets.get(i), positions[i][0], positions[i][1], null);
+            index.append(names.get(i)).append('=').append(positions[i][0]).append(',').append(positions[i][1])
+                    .append(',').append(widths[i]).append(',').append(heights[i]);
+            String grid = grids.getProperty(names.get(i));
+            if (grid != null) {
+                int[] frames = parseGrid(names.get(i), grid);
+                if (frames[0] * frames[3] > widths[i] || frames[1] * frames[2] > heights[i]) {
+                    throw new IllegalArgumentException("The frame grid of " + names.get(i) + " does not fit the sheet: " + grid);
+                }
+                index.append(',').append(frames[0]).append(',').append(frames[1])
+                        .append(',').append(frames[2]).append(',').append(frames[3]);
+            }
+            index.append('\n');
+        }
+        g.dispose();
+
+        File out = new File(args[1]);
+        Files.createDirectories(out.toPath());
+        ImageIO.write(atlas, "png", new File(out, ATLAS_IMAGE));
+        try (OutputStream os = new FileOutputStream(new File(out, ATLAS_INDEX))) {
+            os.write(index.toString().getBytes(StandardCharsets.ISO_8859_1));
+        }
+        System.out.println("Packed " + sheets.size() + " sprite sheets into a " + ATLAS_WIDTH + "x" + atlasHeight + " atlas");
+    }
+
+    /**
+     * Parses a frame grid in the format of FRAME_GRIDS.
+     *
+     * @param name the file name of the sheet, for the error message
+     * @param grid the frame width, frame height, rows and columns separated by commas
+     * @return the frame width, frame height, rows and columns
+     * @throws IllegalArgumentException if the grid does not have four positive numbers
+     */
+    public static int[] parseGrid(String name, String grid) {
+        String[] parts = grid.split(",");
+        if (parts.length != 4) {
+            throw new IllegalArgumentException("Expected frameWidth,frameHeight,rows,columns for " + name + ": " + grid);
+        }
+        int[] frames = new int[4];
+        for (int i = 0; i < 4; i++) {
+            frames[i] = Integer.parseInt(parts[i].trim());
+            if (frames[i] <= 0) {
+                throw new IllegalArgumentException("The frame grid of " + name + " must be positive: " + grid);
+            }
+        }
+        return frames;
+    }
+
+    /**
+     * Places rectangles on shelves of a fixed width, tallest first.
+     * Each shelf is as tall as its first rectangle; a rectangle that does not fit the shelf starts a new one.
+     *
+     * @param widths the widths of the rectangles
+     * @param heights the heights of the rectangles
+     * @param atlasWidth the width of the atlas
+     * @return the x and y of each rectangle, in the order of the input
+     * @throws IllegalArgumentException if a rectangle is wider than the atlas
+     */
+    public static int[][] pack(int[] widths, int[] heights, int atlasWidth) {
+        Integer[] order = new Integer[widths.length];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+            if (widths[i] + PADDING > atlasWidth) {
+                throw new IllegalArgumentException("Sheet " + i + " is wider than the atlas: " + widths[i]);
+            }
+        }
+        Arrays.sort(order, Comparator.comparingInt((Integer i) -> -heights[i]).thenComparingInt(i -> i));
+
+        int[][] positions = new int[widths.length][];
+        int x = PADDING, y = PADDING, shelfHeight = 0;
+        for (int i : order) {
+            if (x + widths[i] + PADDING > atlasWidth) {
+                x = PADDING;
+                y += shelfHeight + PADDING;
+                shelfHeight = 0;
+            }
+            positions[i] = new int[]{x, y};
+            x += widths[i] + PADDING;
+            shelfHeight = Math.max(shelfHeight, heights[i]);
+        }
+        return positions;
+    }
+}
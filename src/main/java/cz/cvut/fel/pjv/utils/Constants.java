@@ -1,5 +1,6 @@
 package cz.cvut.fel.pjv.utils;
 
+import cz.cvut.fel.pjv.characters.EnemyRegistry;
 import cz.cvut.fel.pjv.main.Game;
 
 /**
@@ -39,12 +40,14 @@ public class Constants {
         public static final int STAR_WIDTH = (int) (Game.SCALE * STAR_WIDTH_DEFAULT);
         public static final int STAR_HEIGHT = (int) (Game.SCALE * STAR_HEIGHT_DEFAULT);
 
+        // Frame counts indexed by the object type
+        private static final int[] SPRITE_AMOUNTS = {8, 8, 7, 1, 7};
+
         public static int getSpriteAmount(int object_type) {
-            return switch (object_type) {
-                case HEALTH_POTION, STAR-> 7;
-                case BARREL, BOX -> 8;
-                default -> 1;
-            };
+            if (object_type < 0 || object_type >= SPRITE_AMOUNTS.length) {
+                return 1;
+            }
+            return SPRITE_AMOUNTS[object_type];
         }
     }
 
@@ -85,18 +88,22 @@ public class Constants {
         public static final int ATTACK1 = 7;
         public static final int FALL = 8;
 
+        // Frame counts indexed by the player action
+        private static final int[] SPRITE_AMOUNTS = {4, 6, 4, 6, 1, 6, 1, 6, 4};
+
         public static int GetSpriteAmount(int player_action) {
-            return switch (player_action) {
-                case IDLE, JUMP, FALL -> 4;
-                case RUN, DOUBLEJUMP, DEATH, ATTACK1 -> 6;
-                default -> 1;
-            };
+            if (player_action < 0 || player_action >= SPRITE_AMOUNTS.length) {
+                return 1;
+            }
+            return SPRITE_AMOUNTS[player_action];
         }
     }
 
     public static class EnemyConstants {
+        // Type ids follow the order of the types in enemies.properties
         public static final int DOG = 0;
         public static final int CAT = 1;
+        public static final int RAT = 2;
 
         public static final int IDLE = 0;
         public static final int DIE = 1;
@@ -104,49 +111,16 @@ public class Constants {
         public static final int ATTACK = 3;
         public static final int RUN = 4;
 
-        public static final int ENEMY_DEFAULT_WIDTH = 48;
-        public static final int ENEMY_DEFAULT_HEIGHT = 48;
-        public static final int ENEMY_WIDTH = (int) (ENEMY_DEFAULT_WIDTH * Game.SCALE);
-        public static final int ENEMY_HEIGHT = (int) (ENEMY_DEFAULT_HEIGHT * Game.SCALE);
-
-        public static final int DOG_DRAW_OFFSET_X = (int) (4 * Game.SCALE);
-        public static final int DOG_DRAW_OFFSET_Y = (int) (17 * Game.SCALE);
-        public static final int CAT_DRAW_OFFSET_X = (int) (8 * Game.SCALE);
-        public static final int CAT_DRAW_OFFSET_Y = (int) (29 * Game.SCALE);
-
         public static int getSpriteAmount(int enemyType, int enemyState) {
-            switch (enemyType) {
-                case DOG, CAT -> {
-                    switch (enemyState) {
-                        case RUN -> {
-                            return 6;
-                        }
-                        case HURT -> {
-                            return 2;
-                        }
-                        case IDLE, DIE, ATTACK -> {
-                            return 4;
-                        }
-                    }
-                }
-            }
-            return 0;
+            return EnemyRegistry.getDefault().get(enemyType).getSpriteAmount(enemyState);
         }
 
         public static int getMaxEnemyHealth(int enemyType) {
-            return switch (enemyType) {
-                case DOG -> 20;
-                case CAT -> 10;
-                default -> 1;
-            };
+            return EnemyRegistry.getDefault().get(enemyType).getMaxHealth();
         }
 
         public static int getEnemyDamage(int enemyType) {
-            return switch (enemyType) {
-                case DOG -> 10;
-                case CAT -> 5;
-                default -> 1;
-            };
+            return EnemyRegistry.getDefault().get(enemyType).getDamage();
         }
     }
 
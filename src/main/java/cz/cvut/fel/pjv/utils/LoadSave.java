@@ -1,6 +1,11 @@
 package cz.cvut.fel.pjv.utils;
 
+import cz.cvut.fel.pjv.main.Game;
+import cz.cvut.fel.pjv.render.ScalingStrategy;
+import cz.cvut.fel.pjv.render.SpriteRegion;
 import javafx.scene.image.Image;
+import javafx.scene.image.PixelFormat;
+import javafx.scene.image.WritableImage;
 
 import java.io.File;
 import java.io.FileInputStream;
@@ -8,6 +13,7 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.net.URISyntaxException;
 import java.net.URL;
+import java.util.Properties;
 
 /**
  * Utility class for loading and saving game resources such as images and levels.
@@ -22,8 +28,6 @@ public class LoadSave {
     public static final String urmButtons = "urm_buttons.png";
     public static final String volumeButtons = "volume_buttons.png";
     public static final String playingBackground = "background.png";
-    public static final String dogSprite = "dog.png";
-    public static final String catSprite = "cat.png";
     public static final String heathBar = "health_bar.png";
     public static final String levelCompleted = "level_completed.png";
     public static final String boxSprites = "box_sprites.png";
@@ -34,6 +38,143 @@ public class LoadSave {
     public static final String optionsBackground = "options_background.png";
     public static final String gameCompleted = "game_completed.png";
 
+    private static Image packedAtlas;
+    private static Image scaledAtlas;
+    private static Properties atlasIndex;
+    private static Properties frameGrids;
+
+    /**
+     * Returns a sprite sheet as a region of the packed atlas built by AtlasPacker.
+     * The atlas is loaded once and shared by all sheets, so drawing them does not switch textures.
+     * Sheets missing from the atlas, or all sheets when the atlas was not built, are loaded from their own file.
+     * With the PRESCALED strategy the region lies in a copy of the atlas scaled by Game.SCALE, made once.
+     *
+     * @param fileName the file name of the sprite sheet
+     * @return the region of the sheet, or null if the sheet could not be loaded
+     */
+    public static synchronized SpriteRegion getSprite(String fileName) {
+        if (atlasIndex == null) {
+            loadAtlas();
+        }
+        String rectangle = atlasIndex.getProperty(fileName);
+        if (rectangle != null && packedAtlas != null) {
+            String[] parts = rectangle.split(",");
+            SpriteRegion sheet = new SpriteRegion(packedAtlas, Integer.parseInt(parts[0]), Integer.parseInt(parts[1]),
+                    Integer.parseInt(parts[2]), Integer.parseInt(parts[3]));
+            if (Game.SCALING == ScalingStrategy.PRESCALED) {
+                if (scaledAtlas == null) {
+                    scaledAtlas = scaleNearest(packedAtlas, Game.SCALE);
+                }
+                return sheet.scaled(scaledAtlas, Game.SCALE);
+            }
+            return sheet;
+        }
+        Image image = getSpriteAtlas(fileName);
+        if (image == null) {
+            return null;
+        }
+        SpriteRegion sheet = new SpriteRegion(image, 0, 0, image.getWidth(), image.getHeight());
+        return Game.SCALING == ScalingStrategy.PRESCALED ? sheet.scaled(scaleNearest(image, Game.SCALE), Game.SCALE) : sheet;
+    }
+
+    /**
+     * Returns the frames of an animated sprite sheet, cut with the frame grid of the sheet.
+     * The grid comes from the atlas index, or from AtlasPacker.FRAME_GRIDS for sheets that are not in the atlas.
+     *
+     * @param fileName the file name of the sprite sheet
+     * @return the frames indexed by row and column, or null if the sheet could not be loaded
+     * @throws IllegalArgumentException if no frame grid is known for the sheet
+     */
+    public static synchronized SpriteRegion[][] getFrames(String fileName) {
+        SpriteRegion sheet = getSprite(fileName);
+        if (sheet == null) {
+            return null;
+        }
+        int[] grid = getFrameGrid(fileName);
+        return sheet.grid(grid[2], grid[3], grid[0], grid[1]);
+    }
+
+    /**
+     * Returns the frame grid of a sprite sheet.
+     *
+     * @param fileName the file name of the sprite sheet
+     * @return the frame width, frame height, rows and columns
+     * @throws IllegalArgumentException if no frame grid is known for the sheet
+     */
+    public static synchronized int[] getFrameGrid(String fileName) {
+        if (atlasIndex == null) {
+            loadAtlas();
+        }
+        String entry = atlasIndex.getProperty(fileName);
+        if (entry != null) {
+            String[] parts = entry.split(",", 5);
+            if (parts.length == 5) {
+                return AtlasPacker.parseGrid(fileName, parts[4]);
+            }
+        }
+        if (frameGrids == null) {
+            frameGrids = new Properties();
+            try (InputStream is = LoadSave.class.getResourceAsStream("/" + AtlasPacker.FRAME_GRIDS)) {
+                if (is != null) {
+                    frameGrids.load(is);
+                }
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
+        String grid = frameGrids.getProperty(fileName);
+        if (grid == null) {
+            throw new IllegalArgumentException("No frame grid for sprite sheet: " + fileName);
+        }
+        return AtlasPacker.parseGrid(fileName, grid);
+    }
+
+    /**
+     * Scales an image with nearest-neighbour filtering, so pixel art stays sharp.
+     *
+     * @param image the image to scale
+     * @param factor the scale factor
+     * @return the scaled copy of the image
+     */
+    public static Image scaleNearest(Image image, double factor) {
+        int width = (int) image.getWidth(), height = (int) image.getHeight();
+        int scaledWidth = (int) Math.round(width * factor), scaledHeight = (int) Math.round(height * factor);
+        int[] pixels = new int[width * height];
+        image.getPixelReader().getPixels(0, 0, width, height, PixelFormat.getIntArgbInstance(), pixels, 0, width);
+
+        int[] columns = new int[scaledWidth];
+        for (int x = 0; x < scaledWidth; x++) {
+            columns[x] = Math.min(width - 1, (int) (x / factor));
+        }
+        int[] scaled = new int[scaledWidth * scaledHeight];
+        for (int y = 0; y < scaledHeight; y++) {
+            int row = Math.min(height - 1, (int) (y / factor)) * width;
+            for (int x = 0; x < scaledWidth; x++) {
+                scaled[y * scaledWidth + x] = pixels[row + columns[x]];
+            }
+        }
+        WritableImage result = new WritableImage(scaledWidth, scaledHeight);
+        result.getPixelWriter().setPixels(0, 0, scaledWidth, scaledHeight, PixelFormat.getIntArgbInstance(), scaled, 0, scaledWidth);
+        return result;
+    }
+
+    /**
+     * Reads the atlas index and image. Without them the index stays empty and every sheet is loaded on its own.
+     */
+    private static void loadAtlas() {
+        atlasIndex = new Properties();
+        try (InputStream is = LoadSave.class.getResourceAsStream("/" + AtlasPacker.ATLAS_INDEX)) {
+            if (is == null) {
+                return;
+            }
+            atlasIndex.load(is);
+        } catch (IOException e) {
+            e.printStackTrace();
+            return;
+        }
+        packedAtlas = getSpriteAtlas(AtlasPacker.ATLAS_IMAGE);
+    }
+
     /**
      * Loads a sprite atlas from the resources.
      *
@@ -0,0 +1,55 @@
+package cz.cvut.fel.pjv.utils;
+
+import java.util.Arrays;
+
+/**
+ * A free list of released slots of an entity store. Entities spawned during play, like dropped potions,
+ * take a released slot instead of appending a new one, so once a level has warmed up
+ * spawning and despawning allocate nothing.
+ * The most recently released slot is handed out first.
+ */
+public class SlotPool {
+    private int[] slots;
+    private int size;
+
+    /**
+     * Constructs an empty SlotPool with the given initial capacity.
+     *
+     * @param capacity the initial capacity
+     */
+    public SlotPool(int capacity) {
+        slots = new int[Math.max(1, capacity)];
+    }
+
+    /**
+     * Takes a released slot out of the pool.
+     *
+     * @return the slot, or -1 if the pool is empty
+     */
+    public int acquire() {
+        return size == 0 ? -1 : slots[--size];
+    }
+
+    /**
+     * Returns a slot to the pool. The caller must not use the slot until it is acquired again.
+     *
+     * @param slot the slot
+     */
+    public void release(int slot) {
+        if (size == slots.length) {
+            slots = Arrays.copyOf(slots, size * 2);
+        }
+        slots[size++] = slot;
+    }
+
+    /**
+     * Forgets all released slots, for when the store they belong to is refilled.
+     */
+    public void clear() {
+        size = 0;
+    }
+
+    public int size() {
+        return size;
+    }
+}
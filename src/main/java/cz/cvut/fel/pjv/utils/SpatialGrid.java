@@ -0,0 +1,200 @@
+package cz.cvut.fel.pjv.utils;
+
+import java.util.Arrays;
+
+/**
+ * A grid of level columns for finding entities near a rectangle without testing every entity.
+ * Entities are identified by non-negative int ids, usually their index in the owner's list,
+ * and stored in every column their bounding box touches. Levels are only a few tiles tall,
+ * so only the horizontal extent is indexed, and the grid is sized to the width of the level,
+ * so a query only looks at the entities of the columns it touches however long the level is.
+ * Boxes outside the level are kept in its first or last column.
+ * Queries return candidates only; the caller still tests the exact overlap.
+ */
+public class SpatialGrid {
+    private final double cellSize;
+    private int[][] columns = new int[1][];
+    private int[] columnSizes = new int[1];
+
+    private boolean[] present = new boolean[0];
+    private int[] minColumn = new int[0], maxColumn = new int[0];
+
+    private int[] stamps = new int[0];
+    private int stamp;
+    private int[] result = new int[16];
+    private int resultSize;
+
+    /**
+     * Constructs an empty SpatialGrid of one column. Call resize() before loading a level.
+     *
+     * @param cellSize the width of a column in pixels
+     */
+    public SpatialGrid(double cellSize) {
+        this.cellSize = cellSize;
+    }
+
+    /**
+     * Removes all entities and sizes the grid to a level.
+     *
+     * @param columnCount the width of the level in columns
+     */
+    public void resize(int columnCount) {
+        columnCount = Math.max(1, columnCount);
+        if (columnCount != columns.length) {
+            columns = new int[columnCount][];
+            columnSizes = new int[columnCount];
+        }
+        clear();
+    }
+
+    /**
+     * Removes all entities from the grid.
+     */
+    public void clear() {
+        Arrays.fill(columnSizes, 0);
+        Arrays.fill(present, false);
+    }
+
+    /**
+     * Adds an entity to the grid. An entity that is already in the grid is moved instead.
+     *
+     * @param id the id of the entity
+     * @param x the x-coordinate of the entity's bounding box
+     * @param y the y-coordinate of the entity's bounding box
+     * @param width the width of the bounding box
+     * @param height the height of the bounding box
+     */
+    public void insert(int id, double x, double y, double width, double height) {
+        ensureCapacity(id + 1);
+        if (present[id]) {
+            move(id, x, y, width, height);
+            return;
+        }
+        present[id] = true;
+        minColumn[id] = column(x);
+        maxColumn[id] = column(x + width);
+        addToColumns(id);
+    }
+
+    /**
+     * Updates the columns of an entity after its bounding box moved.
+     * Nothing changes if the box still touches the same columns, which is the case for most ticks.
+     *
+     * @param id the id of the entity
+     * @param x the new x-coordinate of the entity's bounding box
+     * @param y the new y-coordinate of the entity's bounding box
+     * @param width the width of the bounding box
+     * @param height the height of the bounding box
+     */
+    public void move(int id, double x, double y, double width, double height) {
+        if (id >= present.length || !present[id]) {
+            insert(id, x, y, width, height);
+            return;
+        }
+        int x0 = column(x), x1 = column(x + width);
+        if (x0 == minColumn[id] && x1 == maxColumn[id]) {
+            return;
+        }
+        removeFromColumns(id);
+        minColumn[id] = x0;
+        maxColumn[id] = x1;
+        addToColumns(id);
+    }
+
+    /**
+     * Removes an entity from the grid.
+     *
+     * @param id the id of the entity
+     */
+    public void remove(int id) {
+        if (id < present.length && present[id]) {
+            removeFromColumns(id);
+            present[id] = false;
+        }
+    }
+
+    /**
+     * Finds the entities whose columns touch the given rectangle.
+     * The ids are read with getQueryResult and stay valid until the next query.
+     *
+     * @param x the x-coordinate of the rectangle
+     * @param y the y-coordinate of the rectangle
+     * @param width the width of the rectangle
+     * @param height the height of the rectangle
+     * @return the number of entities found, each one reported once
+     */
+    public int query(double x, double y, double width, double height) {
+        if (++stamp == 0) {
+            Arrays.fill(stamps, 0);
+            stamp = 1;
+        }
+        resultSize = 0;
+        int x1 = column(x + width);
+        for (int cx = column(x); cx <= x1; cx++) {
+            int[] ids = columns[cx];
+            for (int i = 0; i < columnSizes[cx]; i++) {
+                int id = ids[i];
+                if (stamps[id] != stamp) {
+                    stamps[id] = stamp;
+                    if (resultSize == result.length) {
+                        result = Arrays.copyOf(result, resultSize * 2);
+                    }
+                    result[resultSize++] = id;
+                }
+            }
+        }
+        return resultSize;
+    }
+
+    /**
+     * Returns an id found by the last query.
+     *
+     * @param index the index of the result, less than the count returned by query
+     * @return the id of the entity
+     */
+    public int getQueryResult(int index) {
+        return result[index];
+    }
+
+    private void addToColumns(int id) {
+        for (int cx = minColumn[id]; cx <= maxColumn[id]; cx++) {
+            int[] ids = columns[cx];
+            if (ids == null) {
+                ids = columns[cx] = new int[4];
+            } else if (columnSizes[cx] == ids.length) {
+                ids = columns[cx] = Arrays.copyOf(ids, ids.length * 2);
+            }
+            ids[columnSizes[cx]++] = id;
+        }
+    }
+
+    private void removeFromColumns(int id) {
+        for (int cx = minColumn[id]; cx <= maxColumn[id]; cx++) {
+            int[] ids = columns[cx];
+            int size = columnSizes[cx];
+            for (int i = 0; i < size; i++) {
+                if (ids[i] == id) {
+                    ids[i] = ids[size - 1];
+                    columnSizes[cx] = size - 1;
+                    break;
+                }
+            }
+        }
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity <= present.length) {
+            return;
+        }
+        int newCapacity = Math.max(capacity, present.length * 2);
+        present = Arrays.copyOf(present, newCapacity);
+        minColumn = Arrays.copyOf(minColumn, newCapacity);
+        maxColumn = Arrays.copyOf(maxColumn, newCapacity);
+        stamps = Arrays.copyOf(stamps, newCapacity);
+    }
+
+    private int column(double coordinate) {
+        int column = (int) Math.floor(coordinate / cellSize);
+        return Math.max(0, Math.min(columns.length - 1, column));
+    }
+}
@@ -0,0 +1,130 @@
+package cz.cvut.fel.pjv.characters;
+
+import cz.cvut.fel.pjv.gamestates.Playing;
+import cz.cvut.fel.pjv.levels.Level;
+import cz.cvut.fel.pjv.main.Game;
+import cz.cvut.fel.pjv.main.HeadlessSimulation;
+import cz.cvut.fel.pjv.utils.ActivityRegion;
+import javafx.scene.image.PixelWriter;
+import javafx.scene.image.WritableImage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static cz.cvut.fel.pjv.utils.Constants.EnemyConstants.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class EnemyManagerTest {
+    private static final int NEAR_DOG_COLUMN = 5;
+    private static final int FAR_DOG_COLUMN = 150;
+
+    private Playing playing;
+    private Level level;
+    private EnemyManager enemyManager;
+
+    @BeforeEach
+    void setUp() {
+        playing = new HeadlessSimulation().getPlaying();
+        // Ground in the bottom row, a dog near the start and one far away, nothing else
+        WritableImage image = createLevel(200);
+        image.getPixelWriter().setArgb(NEAR_DOG_COLUMN, Game.TILES_IN_HEIGHT - 2, pixel(44, DOG));
+        image.getPixelWriter().setArgb(FAR_DOG_COLUMN, Game.TILES_IN_HEIGHT - 2, pixel(44, DOG));
+        level = new Level(image);
+        enemyManager = new EnemyManager(playing);
+        enemyManager.loadEnemies(level);
+    }
+
+    private static WritableImage createLevel(int width) {
+        WritableImage image = new WritableImage(width, Game.TILES_IN_HEIGHT);
+        PixelWriter writer = image.getPixelWriter();
+        for (int y = 0; y < Game.TILES_IN_HEIGHT; y++) {
+            for (int x = 0; x < width; x++) {
+                writer.setArgb(x, y, pixel(y == Game.TILES_IN_HEIGHT - 1 ? 0 : 44, 100));
+            }
+        }
+        return image;
+    }
+
+    private static int pixel(int tile, int green) {
+        return 0xFF000000 | tile << 16 | green << 8 | 100;
+    }
+
+    private void run(ActivityRegion region, int ticks) {
+        region.update(0);
+        for (int i = 0; i < ticks; i++) {
+            enemyManager.update(level.getTileMap(), playing.getPlayer(), region);
+            playing.getAnimationClock().tick();
+        }
+    }
+
+    @Test
+    void testFarEnemiesSleep() {
+        run(new ActivityRegion(), 300);
+        EnemyStore enemies = enemyManager.getEnemies();
+        assertNotEquals(NEAR_DOG_COLUMN * Game.TILES_SIZE, enemies.getX(0));
+        assertEquals(FAR_DOG_COLUMN * Game.TILES_SIZE, enemies.getX(1));
+        assertEquals(IDLE, enemies.getState(1));
+        assertTrue(enemyManager.getRemainingEnemies() > 0);
+    }
+
+    @Test
+    void testLargeRadiusWakesAllEnemies() {
+        run(new ActivityRegion(FAR_DOG_COLUMN * Game.TILES_SIZE), 300);
+        assertNotEquals(FAR_DOG_COLUMN * Game.TILES_SIZE, enemyManager.getEnemies().getX(1));
+    }
+
+    @Test
+    void testDeadEnemyLeavesRemainingCount() {
+        assertEquals(2, enemyManager.getRemainingEnemies());
+        EnemyStore enemies = enemyManager.getEnemies();
+        enemies.hurt(0, enemies.getMaxHealth(0));
+        run(new ActivityRegion(), 300);
+        assertFalse(enemies.isActive(0));
+        assertEquals(1, enemyManager.getRemainingEnemies());
+    }
+
+    @Test
+    void testParallelUpdateMatchesSequential() {
+        // Enough enemies for the parallel phase, some of them close enough to the player to attack
+        WritableImage image = createLevel(1200);
+        for (int x = 0; x < 1200; x++) {
+            for (int y = Game.TILES_IN_HEIGHT - 4; y < Game.TILES_IN_HEIGHT - 1; y++) {
+                image.getPixelWriter().setArgb(x, y, pixel(44, x % 3));
+            }
+        }
+        Level crowded = new Level(image);
+        assertTrue(crowded.getEnemies().size() >= EnemyStore.PARALLEL_THRESHOLD);
+
+        Playing sequentialPlaying = new HeadlessSimulation().getPlaying();
+        EnemyManager sequential = new EnemyManager(sequentialPlaying);
+        sequential.loadEnemies(crowded);
+        Playing parallelPlaying = new HeadlessSimulation().getPlaying();
+        EnemyManager parallel = new EnemyManager(parallelPlaying);
+        parallel.loadEnemies(crowded);
+        parallel.setParallelism(4);
+        for (Player player : new Player[]{sequentialPlaying.getPlayer(), parallelPlaying.getPlayer()}) {
+            player.getHitBox().setX(20 * Game.TILES_SIZE);
+            player.getHitBox().setY((Game.TILES_IN_HEIGHT - 2) * Game.TILES_SIZE);
+        }
+
+        ActivityRegion region = new ActivityRegion(1e9);
+        region.update(0);
+        for (int i = 0; i < 500; i++) {
+            sequential.update(crowded.getTileMap(), sequentialPlaying.getPlayer(), region);
+            parallel.update(crowded.getTileMap(), parallelPlaying.getPlayer(), region);
+            sequentialPlaying.getAnimationClock().tick();
+            parallelPlaying.getAnimationClock().tick();
+        }
+        parallel.setParallelism(1);
+
+        EnemyStore a = sequential.getEnemies();
+        EnemyStore b = parallel.getEnemies();
+        for (int id = 0; id < a.size(); id++) {
+            assertEquals(a.getX(id), b.getX(id));
+            assertEquals(a.getY(id), b.getY(id));
+            assertEquals(a.getState(id), b.getState(id));
+        }
+        assertEquals(a.getActiveCount(), b.getActiveCount());
+        assertTrue(sequentialPlaying.getPlayer().getCurrentHealth() < sequentialPlaying.getPlayer().getMaxHealth());
+        assertEquals(sequentialPlaying.getPlayer().getCurrentHealth(), parallelPlaying.getPlayer().getCurrentHealth());
+    }
+}
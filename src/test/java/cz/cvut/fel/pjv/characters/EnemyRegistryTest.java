@@ -0,0 +1,55 @@
+package cz.cvut.fel.pjv.characters;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static cz.cvut.fel.pjv.utils.Constants.EnemyConstants.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class EnemyRegistryTest {
+
+    private static EnemyRegistry load(String descriptor) throws IOException {
+        return EnemyRegistry.load(new ByteArrayInputStream(descriptor.getBytes(StandardCharsets.ISO_8859_1)));
+    }
+
+    private static String type(String name, int colorKey) {
+        return name + ".sprite=" + name + ".png\n" + name + ".frame=32,32\n" + name + ".colorKey=" + colorKey + "\n"
+                + name + ".hitBox=10,10\n" + name + ".drawOffset=1,2\n" + name + ".attackOffsetY=0\n"
+                + name + ".health=3\n" + name + ".damage=1\n"
+                + name + ".idle=0,4\n" + name + ".die=1,2\n" + name + ".hurt=1,2\n" + name + ".attack=2,4\n" + name + ".run=3,4\n";
+    }
+
+    @Test
+    void testDefaultRegistryMatchesTypeConstants() {
+        EnemyRegistry registry = EnemyRegistry.getDefault();
+        assertEquals("dog", registry.get(DOG).getName());
+        assertEquals("cat", registry.get(CAT).getName());
+        assertEquals("rat", registry.get(RAT).getName());
+        assertEquals(RAT, registry.getTypeByColorKey(2));
+        assertEquals(-1, registry.getTypeByColorKey(255));
+        assertEquals(6, registry.get(DOG).getSpriteAmount(RUN));
+    }
+
+    @Test
+    void testLoadDescriptor() throws IOException {
+        EnemyRegistry registry = load("types=mole\n" + type("mole", 7));
+        EnemyType mole = registry.get(0);
+        assertEquals(0, registry.getTypeByColorKey(7));
+        assertEquals(3, mole.getMaxHealth());
+        assertEquals(2, mole.getSpriteAmount(DIE));
+        assertEquals(3, mole.getRow(RUN));
+    }
+
+    @Test
+    void testRejectsSharedColorKey() {
+        assertThrows(IllegalArgumentException.class, () -> load("types=a,b\n" + type("a", 5) + type("b", 5)));
+    }
+
+    @Test
+    void testRejectsMissingEntry() {
+        assertThrows(IllegalArgumentException.class, () -> load("types=a\n" + type("a", 5).replace("a.damage=1\n", "")));
+    }
+}
@@ -1,6 +1,7 @@
 package cz.cvut.fel.pjv.characters;
 
 import cz.cvut.fel.pjv.gamestates.Playing;
+import cz.cvut.fel.pjv.levels.TileMap;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
@@ -13,13 +14,13 @@ class EnemyTest {
     private Playing playing;
     private Enemy enemy;
     private Player mockPlayer;
-    private int[][] mockLevelData;
+    private TileMap mockLevelData;
 
     @BeforeEach
     void setUp() {
         enemy = new Dog(0, 0); // Example instantiation
         mockPlayer = new Player(0, 0, 50, 50, playing); // Example instantiation
-        mockLevelData = new int[10][10]; // Example level data
+        mockLevelData = new TileMap(new int[10][10]); // Example level data
     }
 
     @Test
@@ -1,6 +1,9 @@
 package cz.cvut.fel.pjv.characters;
 
 import cz.cvut.fel.pjv.gamestates.Playing;
+import cz.cvut.fel.pjv.levels.TileMap;
+import cz.cvut.fel.pjv.render.RenderQueue;
+import cz.cvut.fel.pjv.render.RenderSnapshot;
 import javafx.geometry.Point2D;
 import javafx.scene.canvas.Canvas;
 import javafx.scene.canvas.GraphicsContext;
@@ -12,13 +15,13 @@ import static org.junit.jupiter.api.Assertions.*;
 class PlayerTest {
     private Player player;
     private Playing playing;
-    private int[][] mockLevelData;
+    private TileMap mockLevelData;
     private GraphicsContext mockGraphicsContext;
 
     @BeforeEach
     void setUp() {
         player = new Player(0, 0, 50, 50, playing);
-        mockLevelData = new int[10][10]; // Example level data
+        mockLevelData = new TileMap(new int[10][10]); // Example level data
         Canvas canvas = new Canvas(100, 100); // Mock canvas for GraphicsContext
         mockGraphicsContext = canvas.getGraphicsContext2D();
     }
@@ -58,7 +61,13 @@ class PlayerTest {
 
     @Test
     void testRender() {
-        player.render(mockGraphicsContext, 0);
+        RenderSnapshot snapshot = new RenderSnapshot();
+        player.writeSnapshot(snapshot);
+        RenderQueue queue = new RenderQueue(16);
+        player.render(queue, snapshot, 1);
+        assertEquals(1, queue.size());
+        queue.flush(mockGraphicsContext);
+        player.drawUI(mockGraphicsContext, snapshot);
         // Since this is a visual test, we mainly ensure no exceptions are thrown during rendering
         assertTrue(true);
     }
@@ -0,0 +1,46 @@
+package cz.cvut.fel.pjv.effects;
+
+import cz.cvut.fel.pjv.render.ParticleList;
+import cz.cvut.fel.pjv.render.RenderSnapshot;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ParticleSystemTest {
+
+    @Test
+    void testEmitStopsAtCapacity() {
+        ParticleSystem particles = new ParticleSystem(100);
+        particles.emit(ParticleSystem.HIT, 0, 0, 60);
+        particles.emit(ParticleSystem.DEATH, 0, 0, 60);
+        assertEquals(100, particles.count());
+    }
+
+    @Test
+    void testParticlesExpire() {
+        ParticleSystem particles = new ParticleSystem(100);
+        particles.emit(ParticleSystem.BREAK, 0, 0, 50);
+        for (int i = 0; i < 1000; i++) {
+            particles.update();
+        }
+        assertEquals(0, particles.count());
+    }
+
+    @Test
+    void testSnapshotGroupsParticlesByKind() {
+        ParticleSystem particles = new ParticleSystem(100);
+        particles.emit(ParticleSystem.PICKUP, 0, 0, 3);
+        particles.emit(ParticleSystem.HIT, 0, 0, 5);
+        particles.emit(ParticleSystem.PICKUP, 0, 0, 2);
+        RenderSnapshot snapshot = new RenderSnapshot();
+        particles.writeSnapshot(snapshot);
+
+        ParticleList list = snapshot.getParticles();
+        assertEquals(10, list.size());
+        assertEquals(0, list.getStart(ParticleSystem.HIT));
+        assertEquals(5, list.getEnd(ParticleSystem.HIT));
+        assertEquals(5, list.getStart(ParticleSystem.PICKUP));
+        assertEquals(10, list.getEnd(ParticleSystem.PICKUP));
+        assertEquals(list.getStart(ParticleSystem.DEATH), list.getEnd(ParticleSystem.DEATH));
+    }
+}
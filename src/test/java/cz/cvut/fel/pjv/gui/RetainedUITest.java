@@ -0,0 +1,88 @@
+package cz.cvut.fel.pjv.gui;
+
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.shape.Rectangle;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RetainedUITest {
+    private GraphicsContext gc;
+    private TestElement left, right;
+    private int backgroundDraws;
+    private RetainedUI ui;
+
+    private static class TestElement implements UIElement {
+        private final Rectangle bounds;
+        private int state, draws, drawnState;
+        private Runnable duringDraw = () -> {
+        };
+
+        TestElement(double x) {
+            bounds = new Rectangle(x, 10, 20, 20);
+        }
+
+        @Override
+        public void draw(GraphicsContext g, int state) {
+            draws++;
+            drawnState = state;
+            duringDraw.run();
+        }
+
+        @Override
+        public int getDrawState() {
+            return state;
+        }
+
+        @Override
+        public Rectangle getDrawBounds() {
+            return bounds;
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        gc = new Canvas(100, 100).getGraphicsContext2D();
+        left = new TestElement(0);
+        right = new TestElement(50);
+        ui = new RetainedUI(g -> backgroundDraws++, left, right);
+    }
+
+    @Test
+    void testNothingIsDrawnWithoutChanges() {
+        assertTrue(ui.drawChanges(gc), "the first frame draws everything");
+        assertEquals(1, left.draws);
+        assertEquals(1, right.draws);
+
+        assertFalse(ui.drawChanges(gc));
+        assertEquals(1, backgroundDraws);
+        assertEquals(1, left.draws);
+    }
+
+    @Test
+    void testOnlyTheChangedElementIsRedrawn() {
+        ui.drawAll(gc);
+        right.state = 1;
+
+        assertTrue(ui.drawChanges(gc));
+        assertEquals(1, left.draws);
+        assertEquals(2, right.draws);
+        assertEquals(2, backgroundDraws);
+        assertFalse(ui.drawChanges(gc));
+    }
+
+    @Test
+    void testAChangeDuringTheDrawIsDrawnNextFrame() {
+        right.duringDraw = () -> right.state = 1; // the simulation updates the button mid-frame
+        ui.drawAll(gc);
+        assertEquals(0, right.drawnState);
+        right.duringDraw = () -> {
+        };
+
+        assertTrue(ui.drawChanges(gc));
+        assertEquals(1, right.drawnState);
+        assertFalse(ui.drawChanges(gc));
+    }
+}
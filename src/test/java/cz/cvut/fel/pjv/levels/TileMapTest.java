@@ -0,0 +1,58 @@
+package cz.cvut.fel.pjv.levels;
+
+import cz.cvut.fel.pjv.main.Game;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TileMapTest {
+    private TileMap tileMap;
+
+    @BeforeEach
+    void setUp() {
+        tileMap = new TileMap(100, 3);
+        for (int x = 0; x < 100; x++) {
+            tileMap.setTile(x, 0, TileMap.AIR);
+        }
+    }
+
+    @Test
+    void testOnlyAirIsNotSolid() {
+        assertFalse(tileMap.isSolid(5, 0));
+        assertTrue(tileMap.isSolid(5, 1));
+        tileMap.setTile(5, 1, 43);
+        assertTrue(tileMap.isSolid(5, 1));
+        assertEquals(43, tileMap.getTile(5, 1));
+    }
+
+    @Test
+    void testOutsideIsSolid() {
+        assertTrue(tileMap.isSolidAt(-1, 0));
+        assertTrue(tileMap.isSolidAt(100 * Game.TILES_SIZE, 0));
+        assertTrue(tileMap.isSolidAt(0, 3 * Game.TILES_SIZE));
+        assertFalse(tileMap.isSolidAt(10, 10));
+    }
+
+    @Test
+    void testCountSolidAcrossWords() {
+        assertEquals(0, tileMap.countSolid(0, 100, 0));
+        assertEquals(100, tileMap.countSolid(0, 100, 1));
+        tileMap.setTile(60, 1, TileMap.AIR);
+        tileMap.setTile(70, 1, TileMap.AIR);
+        assertEquals(58, tileMap.countSolid(20, 80, 1));
+        assertEquals(1, tileMap.countSolid(60, 62, 1));
+        assertEquals(0, tileMap.countSolid(30, 30, 1));
+    }
+
+    @Test
+    void testFromRows() {
+        int[][] rows = {{44, 0}, {3, 44}};
+        TileMap map = new TileMap(rows);
+        assertEquals(2, map.getWidth());
+        assertEquals(2, map.getHeight());
+        assertFalse(map.isSolid(0, 0));
+        assertTrue(map.isSolid(1, 0));
+        assertEquals(3, map.getTile(0, 1));
+    }
+}
@@ -0,0 +1,90 @@
+package cz.cvut.fel.pjv.main;
+
+import cz.cvut.fel.pjv.characters.Player;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HeadlessSimulationTest {
+    private static final int SCRIPTED_TICKS = 6000;
+
+    /**
+     * Plays a level with a fixed input script: runs right, turns back left every third stretch,
+     * jumps and attacks at fixed intervals.
+     *
+     * @return a hash of the player's position after every tick
+     */
+    private static long playScript(HeadlessSimulation simulation) {
+        long trace = 0;
+        for (int tick = 0; tick < SCRIPTED_TICKS; tick++) {
+            Player player = simulation.getPlayer();
+            player.setRight((tick / 400) % 3 != 2);
+            player.setLeft((tick / 400) % 3 == 2);
+            player.setJump(tick % 250 < 5);
+            player.setAttacking(tick % 90 == 0);
+            simulation.step();
+            trace = trace * 31 + Double.hashCode(player.getHitBox().getX()) * 7 + Double.hashCode(player.getHitBox().getY());
+        }
+        return trace;
+    }
+
+    @Test
+    void testCreateHeadless() {
+        Game game = Game.createHeadless();
+        assertTrue(game.isHeadless());
+        assertNotNull(game.getPlaying());
+        assertNull(game.getPanel());
+    }
+
+    @Test
+    void testRunManyTicks() {
+        HeadlessSimulation simulation = new HeadlessSimulation();
+        assertDoesNotThrow(() -> simulation.run(10_000));
+        assertEquals(10_000, simulation.getTicks());
+    }
+
+    @Test
+    void testPlayerMovesRight() {
+        HeadlessSimulation simulation = new HeadlessSimulation();
+        simulation.run(200); // let the player land
+        double startX = simulation.getPlayer().getHitBox().getX();
+        simulation.getPlayer().setRight(true);
+        simulation.run(50);
+        assertTrue(simulation.getPlayer().getHitBox().getX() > startX);
+    }
+
+    @Test
+    void testStartInSecondLevel() {
+        HeadlessSimulation simulation = new HeadlessSimulation(1);
+        assertEquals(1, simulation.getPlaying().getLevelManager().getLevelIndex());
+        assertDoesNotThrow(() -> simulation.run(1_000));
+    }
+
+    @Test
+    void testScriptedFirstLevelIsDeterministic() {
+        HeadlessSimulation simulation = new HeadlessSimulation(0);
+        long trace = playScript(simulation);
+        assertEquals(trace, playScript(new HeadlessSimulation(0)), "the same inputs replay the same way");
+
+        assertEquals(501.0, simulation.getPlayer().getHitBox().getX(), 1e-9);
+        assertEquals(610.18, simulation.getPlayer().getHitBox().getY(), 1e-9);
+        assertEquals(0, simulation.getPlayer().getCurrentHealth());
+        assertTrue(simulation.getPlaying().isGameOver());
+        assertEquals(7, simulation.getPlaying().getEnemyManager().getRemainingEnemies());
+        assertEquals(11, simulation.getPlaying().getObjectManager().getRemainingStars());
+    }
+
+    @Test
+    void testScriptedSecondLevelIsDeterministic() {
+        HeadlessSimulation simulation = new HeadlessSimulation(1);
+        long trace = playScript(simulation);
+        assertEquals(trace, playScript(new HeadlessSimulation(1)), "the same inputs replay the same way");
+
+        assertEquals(905.0, simulation.getPlayer().getHitBox().getX(), 1e-9);
+        assertEquals(430.0, simulation.getPlayer().getHitBox().getY(), 1e-9);
+        assertEquals(85, simulation.getPlayer().getCurrentHealth());
+        assertFalse(simulation.getPlaying().isGameOver());
+        assertEquals(7, simulation.getPlaying().getEnemyManager().getRemainingEnemies());
+        assertEquals(10, simulation.getPlaying().getObjectManager().getRemainingStars());
+    }
+}
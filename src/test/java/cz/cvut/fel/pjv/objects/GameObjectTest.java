@@ -1,9 +1,9 @@
 package cz.cvut.fel.pjv.objects;
 
 import cz.cvut.fel.pjv.main.Game;
+import cz.cvut.fel.pjv.utils.AABB;
 import javafx.scene.canvas.Canvas;
 import javafx.scene.canvas.GraphicsContext;
-import javafx.scene.shape.Rectangle;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
@@ -46,7 +46,7 @@ class GameObjectTest {
     void testInitHitBox() {
         // Test hitbox initialization
         gameObject.initHitBox(20, 20);
-        Rectangle hitBox = gameObject.getHitBox();
+        AABB hitBox = gameObject.getHitBox();
         assertEquals(0, hitBox.getX());
         assertEquals(0, hitBox.getY());
         assertEquals(20 * Game.SCALE, hitBox.getWidth());
@@ -86,7 +86,7 @@ class GameObjectTest {
     void testGetHitBox() {
         // Test getting the hitbox
         gameObject.initHitBox(20, 20);
-        Rectangle hitBox = gameObject.getHitBox();
+        AABB hitBox = gameObject.getHitBox();
         assertNotNull(hitBox);
     }
 
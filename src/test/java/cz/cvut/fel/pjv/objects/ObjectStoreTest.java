@@ -0,0 +1,37 @@
+package cz.cvut.fel.pjv.objects;
+
+import org.junit.jupiter.api.Test;
+
+import static cz.cvut.fel.pjv.utils.Constants.ObjectConstants.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class ObjectStoreTest {
+
+    @Test
+    void testSpawnReusesReleasedSlot() {
+        ObjectStore store = new ObjectStore(4);
+        store.add(BOX, 0, 0);
+        int potion = store.spawn(HEALTH_POTION, 10, 20);
+        store.release(potion);
+        assertFalse(store.isActive(potion));
+
+        int next = store.spawn(HEALTH_POTION, 30, 40);
+        assertEquals(potion, next);
+        assertEquals(2, store.size());
+        assertTrue(store.isActive(next));
+        assertEquals(30, store.getX(next));
+    }
+
+    @Test
+    void testCopyFromForgetsReleasedSlots() {
+        ObjectStore level = new ObjectStore(4);
+        level.add(BOX, 0, 0);
+        ObjectStore store = new ObjectStore(4);
+        store.copyFrom(level);
+        store.release(store.spawn(HEALTH_POTION, 10, 20));
+
+        store.copyFrom(level);
+        assertEquals(1, store.spawn(HEALTH_POTION, 10, 20));
+        assertEquals(2, store.size());
+    }
+}
@@ -0,0 +1,27 @@
+package cz.cvut.fel.pjv.render;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CanvasLayersTest {
+
+    @Test
+    void testLayersAreRedrawnOnlyWhenInvalidated() {
+        CanvasLayers layers = new CanvasLayers();
+        assertEquals(CanvasLayers.COUNT, layers.getCanvases().length);
+        assertTrue(layers.isDirty(CanvasLayers.BACKGROUND), "a new layer has never been drawn");
+
+        layers.begin(CanvasLayers.BACKGROUND);
+        layers.begin(CanvasLayers.HUD);
+        assertFalse(layers.isDirty(CanvasLayers.BACKGROUND));
+        assertFalse(layers.isDirty(CanvasLayers.HUD));
+
+        layers.invalidate(CanvasLayers.HUD);
+        assertFalse(layers.isDirty(CanvasLayers.BACKGROUND));
+        assertTrue(layers.isDirty(CanvasLayers.HUD));
+
+        layers.invalidateAll();
+        assertTrue(layers.isDirty(CanvasLayers.BACKGROUND));
+    }
+}
@@ -0,0 +1,43 @@
+package cz.cvut.fel.pjv.render;
+
+import javafx.scene.image.Image;
+import javafx.scene.image.WritableImage;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RenderQueueTest {
+
+    @Test
+    void testSortsByLayerAndGroupsTextures() {
+        Image a = new WritableImage(4, 4);
+        Image b = new WritableImage(4, 4);
+        RenderQueue queue = new RenderQueue(2); // grows past the initial capacity
+        for (int i = 0; i < 20; i++) {
+            queue.submit(RenderQueue.ENEMIES, i % 2 == 0 ? a : b, i, 0, 4, 4);
+        }
+        queue.submit(RenderQueue.LEVEL, b, 0, 0, 4, 4);
+        queue.submit(RenderQueue.BACKGROUND, a, 0, 0, 4, 4);
+        queue.sort();
+
+        assertEquals(22, queue.size());
+        assertEquals(RenderQueue.BACKGROUND, queue.getLayer(0));
+        assertEquals(RenderQueue.LEVEL, queue.getLayer(1));
+        int switches = 0;
+        for (int i = 3; i < queue.size(); i++) {
+            assertEquals(RenderQueue.ENEMIES, queue.getLayer(i));
+            if (queue.getTexture(i) != queue.getTexture(i - 1)) {
+                switches++;
+            }
+        }
+        assertEquals(1, switches, "the enemies are drawn in one run per texture");
+    }
+
+    @Test
+    void testClearEmptiesTheQueue() {
+        RenderQueue queue = new RenderQueue(16);
+        queue.submit(RenderQueue.PLAYER, new WritableImage(1, 1), 0, 0, 1, 1);
+        queue.clear();
+        assertEquals(0, queue.size());
+    }
+}
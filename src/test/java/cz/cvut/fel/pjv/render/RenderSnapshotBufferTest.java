@@ -0,0 +1,26 @@
+package cz.cvut.fel.pjv.render;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RenderSnapshotBufferTest {
+
+    @Test
+    void testFrontIsLatestPublishedAndNeverTheBack() {
+        RenderSnapshotBuffer buffer = new RenderSnapshotBuffer();
+        RenderSnapshot front = buffer.getFront();
+        assertNotSame(front, buffer.getBack());
+
+        RenderSnapshot first = buffer.getBack();
+        buffer.publish();
+        RenderSnapshot second = buffer.getBack();
+        buffer.publish();
+        assertNotSame(front, buffer.getBack(), "publishing never hands out the snapshot being drawn");
+
+        assertSame(second, buffer.getFront());
+        assertSame(second, buffer.getFront(), "the front stays until something newer is published");
+        assertNotSame(second, buffer.getBack());
+        assertNotSame(first, second);
+    }
+}
@@ -0,0 +1,42 @@
+package cz.cvut.fel.pjv.utils;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AABBTest {
+
+    @Test
+    void testIntersectsIncludesTouchingEdges() {
+        AABB box = new AABB(10, 10, 20, 20);
+        assertTrue(box.intersects(new AABB(15, 15, 5, 5)));
+        assertTrue(box.intersects(new AABB(30, 10, 10, 10)), "touching the right edge");
+        assertTrue(box.intersects(new AABB(0, 0, 10, 10)), "touching the top left corner");
+        assertTrue(box.intersects(10, 30, 5, 5), "touching the bottom edge");
+        assertFalse(box.intersects(new AABB(30.5, 10, 10, 10)));
+        assertFalse(box.intersects(10, -5, 5, 14.5));
+    }
+
+    @Test
+    void testContainsIncludesTheBoundary() {
+        AABB box = new AABB(10, 10, 20, 20);
+        assertTrue(box.contains(20, 20));
+        assertTrue(box.contains(10, 10));
+        assertTrue(box.contains(30, 30));
+        assertTrue(box.contains(10, 25));
+        assertFalse(box.contains(9.9, 20));
+        assertFalse(box.contains(20, 30.1));
+    }
+
+    @Test
+    void testTranslate() {
+        AABB box = new AABB(10, 10, 20, 20);
+        box.translate(5, -3);
+        assertEquals(15, box.getX());
+        assertEquals(7, box.getY());
+        assertEquals(20, box.getWidth());
+        assertEquals(20, box.getHeight());
+        assertTrue(box.contains(35, 27));
+        assertFalse(box.contains(10, 10));
+    }
+}
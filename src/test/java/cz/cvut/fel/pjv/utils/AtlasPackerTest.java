@@ -0,0 +1,37 @@
+package cz.cvut.fel.pjv.utils;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AtlasPackerTest {
+
+    @Test
+    void testPackedSheetsDoNotOverlap() {
+        int[] widths = {384, 288, 288, 300, 32, 216, 128, 96, 400, 84};
+        int[] heights = {576, 240, 240, 300, 32, 32, 128, 64, 199, 15};
+        int[][] positions = AtlasPacker.pack(widths, heights, 1024);
+
+        for (int i = 0; i < widths.length; i++) {
+            assertTrue(positions[i][0] >= 0 && positions[i][1] >= 0);
+            assertTrue(positions[i][0] + widths[i] <= 1024, "sheet " + i + " leaves the atlas");
+            for (int j = 0; j < i; j++) {
+                boolean apart = positions[i][0] + widths[i] <= positions[j][0] || positions[j][0] + widths[j] <= positions[i][0]
+                        || positions[i][1] + heights[i] <= positions[j][1] || positions[j][1] + heights[j] <= positions[i][1];
+                assertTrue(apart, "sheets " + i + " and " + j + " overlap");
+            }
+        }
+    }
+
+    @Test
+    void testSheetWiderThanAtlasIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> AtlasPacker.pack(new int[]{2000}, new int[]{10}, 1024));
+    }
+
+    @Test
+    void testParseGrid() {
+        assertArrayEquals(new int[]{48, 32, 2, 3}, AtlasPacker.parseGrid("sheet.png", "48, 32, 2, 3"));
+        assertThrows(IllegalArgumentException.class, () -> AtlasPacker.parseGrid("sheet.png", "48,32,2"));
+        assertThrows(IllegalArgumentException.class, () -> AtlasPacker.parseGrid("sheet.png", "48,0,2,3"));
+    }
+}
@@ -0,0 +1,44 @@
+package cz.cvut.fel.pjv.utils;
+
+import cz.cvut.fel.pjv.render.SpriteRegion;
+import javafx.scene.image.Image;
+import javafx.scene.image.WritableImage;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LoadSaveTest {
+
+    @Test
+    void testScaleNearestRepeatsPixels() {
+        WritableImage image = new WritableImage(2, 1);
+        image.getPixelWriter().setArgb(0, 0, 0xFFFF0000);
+        image.getPixelWriter().setArgb(1, 0, 0xFF0000FF);
+
+        Image scaled = LoadSave.scaleNearest(image, 1.5);
+        assertEquals(3, scaled.getWidth());
+        assertEquals(2, scaled.getHeight());
+        assertEquals(0xFFFF0000, scaled.getPixelReader().getArgb(1, 1));
+        assertEquals(0xFF0000FF, scaled.getPixelReader().getArgb(2, 0));
+    }
+
+    @Test
+    void testScaledRegionCutsFramesInSheetPixels() {
+        WritableImage image = new WritableImage(64, 32);
+        SpriteRegion sheet = new SpriteRegion(image, 0, 0, 64, 32).scaled(LoadSave.scaleNearest(image, 1.5), 1.5);
+        SpriteRegion frame = sheet.row(0, 2, 32, 32)[1];
+        assertEquals(48, frame.getX());
+        assertEquals(48, frame.getWidth());
+        assertEquals(1.5, frame.getScale());
+    }
+
+    @Test
+    void testFramesAreCutWithTheGridOfTheAtlasIndex() {
+        assertArrayEquals(new int[]{32, 32, 2, 3}, LoadSave.getFrameGrid(LoadSave.soundButtons));
+        SpriteRegion[][] frames = LoadSave.getFrames(LoadSave.soundButtons);
+        assertEquals(2, frames.length);
+        assertEquals(3, frames[1].length);
+        assertEquals(32 * frames[1][2].getScale(), frames[1][2].getWidth());
+        assertThrows(IllegalArgumentException.class, () -> LoadSave.getFrameGrid(LoadSave.trapAtlas));
+    }
+}
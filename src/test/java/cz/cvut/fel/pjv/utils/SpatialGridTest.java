@@ -0,0 +1,63 @@
+package cz.cvut.fel.pjv.utils;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SpatialGridTest {
+    private SpatialGrid grid;
+
+    @BeforeEach
+    void setUp() {
+        grid = new SpatialGrid(48);
+        grid.resize(30);
+        grid.insert(0, 10, 10, 20, 20);
+        grid.insert(1, 40, 10, 20, 20); // spans two cells
+        grid.insert(2, 1000, 10, 20, 20);
+    }
+
+    private Set<Integer> query(double x, double y, double width, double height) {
+        Set<Integer> ids = new HashSet<>();
+        int found = grid.query(x, y, width, height);
+        for (int i = 0; i < found; i++) {
+            assertTrue(ids.add(grid.getQueryResult(i)), "an id is reported twice");
+        }
+        return ids;
+    }
+
+    @Test
+    void testQueryFindsNearbyEntities() {
+        Set<Integer> ids = query(0, 0, 60, 40);
+        assertTrue(ids.contains(0));
+        assertTrue(ids.contains(1));
+        assertFalse(ids.contains(2));
+    }
+
+    @Test
+    void testMove() {
+        grid.move(0, 1010, 10, 20, 20);
+        assertFalse(query(0, 0, 30, 30).contains(0));
+        assertTrue(query(1000, 0, 30, 30).contains(0));
+    }
+
+    @Test
+    void testBoxesOutsideTheLevelAreKeptAtItsEdges() {
+        grid.insert(3, -100, 10, 20, 20);
+        grid.insert(4, 5000, 10, 20, 20);
+        assertTrue(query(0, 0, 10, 10).contains(3));
+        assertTrue(query(29 * 48, 0, 10, 10).contains(4));
+        assertFalse(query(0, 0, 10, 10).contains(4));
+    }
+
+    @Test
+    void testRemoveAndClear() {
+        grid.remove(1);
+        assertFalse(query(40, 10, 20, 20).contains(1));
+        grid.clear();
+        assertTrue(query(0, 0, 2000, 100).isEmpty());
+    }
+}